@@ -0,0 +1,73 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WatchFaceFrameBenchmark {
+
+    private static final int WATCH_SIZE = 320;
+
+    private final char[] timeText = new char[ClockFormat.TIME_LENGTH_WITH_SECONDS];
+    private final char[] dateText = new char[ClockFormat.DATE_MAX_LENGTH];
+    private final WatchFaceLayout layout = new WatchFaceLayout();
+
+    private TextMeasurer timeMeasurer;
+    private TextMeasurer dateMeasurer;
+    private int second;
+
+    @Setup
+    public void setUp() {
+        timeMeasurer = new FixedAdvanceMeasurer(26.0f, 12.0f, 33, -37.0f, 10.0f);
+        dateMeasurer = new FixedAdvanceMeasurer(11.0f, 5.0f, 14, -16.0f, 4.0f);
+        layout.update(WATCH_SIZE, WATCH_SIZE, timeMeasurer, dateMeasurer);
+    }
+
+    @Benchmark
+    public float formatTime() {
+        second = (second + 1) % 60;
+        return ClockFormat.writeTime(timeText, 12, 34, second, true);
+    }
+
+    @Benchmark
+    public float formatAndLayoutFrame() {
+        second = (second + 1) % 60;
+        int timeLength = ClockFormat.writeTime(timeText, 12, 34, second, true);
+        int dateLength = ClockFormat.writeDate(dateText, 18, 10, 2026);
+        return layout.centredX(timeMeasurer, timeText, timeLength)
+                + layout.centredX(dateMeasurer, dateText, dateLength);
+    }
+
+    @Benchmark
+    public float formatAndLayoutCompositedFrame() {
+        second = (second + 1) % 60;
+        if (second == 0) {
+            ClockFormat.writeTime(timeText, 12, 34, second, true);
+            ClockFormat.writeDate(dateText, 18, 10, 2026);
+            layout.splitTimeX(timeMeasurer, timeText, ClockFormat.SECONDS_OFFSET, ClockFormat.SECONDS_LENGTH);
+        }
+        ClockFormat.writeSeconds(timeText, second);
+        return layout.getSecondsX();
+    }
+
+    @Benchmark
+    public float relayout() {
+        layout.update(WATCH_SIZE, WATCH_SIZE, timeMeasurer, dateMeasurer);
+        return layout.getDateBaseline();
+    }
+}
@@ -0,0 +1,55 @@
+package com.catinean.simpleandroidwatchface;
+
+public final class ClockFormat {
+    private ClockFormat() {
+        //no-op
+    }
+
+    public static final char SEPARATOR = '.';
+    public static final int TIME_LENGTH_WITHOUT_SECONDS = 5;
+    public static final int TIME_LENGTH_WITH_SECONDS = 8;
+    public static final int SECONDS_OFFSET = 6;
+    public static final int SECONDS_LENGTH = 2;
+    public static final int DATE_MAX_LENGTH = 16;
+
+    public static int writeTime(char[] buffer, int hour, int minute, int second, boolean showSeconds) {
+        writeTwoDigits(buffer, 0, hour);
+        buffer[2] = SEPARATOR;
+        writeTwoDigits(buffer, 3, minute);
+        if (!showSeconds) {
+            return TIME_LENGTH_WITHOUT_SECONDS;
+        }
+        buffer[5] = SEPARATOR;
+        writeTwoDigits(buffer, SECONDS_OFFSET, second);
+        return TIME_LENGTH_WITH_SECONDS;
+    }
+
+    public static void writeSeconds(char[] buffer, int second) {
+        writeTwoDigits(buffer, SECONDS_OFFSET, second);
+    }
+
+    public static int writeDate(char[] buffer, int monthDay, int month, int year) {
+        writeTwoDigits(buffer, 0, monthDay);
+        buffer[2] = SEPARATOR;
+        writeTwoDigits(buffer, 3, month);
+        buffer[5] = SEPARATOR;
+        return writeNumber(buffer, 6, year);
+    }
+
+    public static void writeTwoDigits(char[] buffer, int offset, int value) {
+        buffer[offset] = (char) ('0' + (value / 10) % 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    public static int writeNumber(char[] buffer, int offset, int value) {
+        int end = offset + 1;
+        for (int remaining = value / 10; remaining > 0; remaining /= 10) {
+            end++;
+        }
+        for (int i = end - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,65 @@
+package com.catinean.simpleandroidwatchface;
+
+/**
+ * Background and date and time colours of the interactive face. A change fades while interactive;
+ * the first colours the face is given, and any change made in ambient, apply at once so the face
+ * never fades in from the defaults or animates where nothing draws the frames.
+ */
+public class ColourAnimator {
+
+    private final ColourTransition background;
+    private final ColourTransition dateAndTime;
+
+    private boolean hasColours;
+    private boolean inAmbientMode;
+
+    public ColourAnimator(long durationMillis) {
+        background = new ColourTransition(durationMillis);
+        dateAndTime = new ColourTransition(durationMillis);
+        background.start(WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR, WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR, 0);
+        dateAndTime.start(WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR, WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR, 0);
+    }
+
+    /**
+     * Returns whether either target colour changed.
+     */
+    public boolean animateTo(int backgroundColour, int dateAndTimeColour, long nowMillis) {
+        boolean animate = hasColours && !inAmbientMode;
+        hasColours = true;
+        boolean backgroundChanged = moveTo(background, backgroundColour, animate, nowMillis);
+        boolean dateAndTimeChanged = moveTo(dateAndTime, dateAndTimeColour, animate, nowMillis);
+        return backgroundChanged || dateAndTimeChanged;
+    }
+
+    private static boolean moveTo(ColourTransition transition, int colour, boolean animate, long nowMillis) {
+        if (colour == transition.getTarget()) {
+            return false;
+        }
+        transition.start(animate ? transition.colourAt(nowMillis) : colour, colour, nowMillis);
+        return true;
+    }
+
+    public void setAmbientMode(boolean inAmbientMode) {
+        this.inAmbientMode = inAmbientMode;
+        if (inAmbientMode) {
+            background.cancel();
+            dateAndTime.cancel();
+        }
+    }
+
+    public int getBackgroundColour(long nowMillis) {
+        return background.colourAt(nowMillis);
+    }
+
+    public int getDateAndTimeColour(long nowMillis) {
+        return dateAndTime.colourAt(nowMillis);
+    }
+
+    public boolean isAnimating() {
+        return !inAmbientMode && (background.isActive() || dateAndTime.isActive());
+    }
+
+    public boolean isDateAndTimeAnimating() {
+        return dateAndTime.isActive();
+    }
+}
@@ -0,0 +1,36 @@
+package com.catinean.simpleandroidwatchface;
+
+/**
+ * Picks the colours the face shows from the synced config and the current theme. Once the phone has
+ * sent a config its colours win, so the result does not depend on whether the config or the theme
+ * arrived first; a theme's own colours only show on a watch that has never had a config.
+ */
+public class ColourResolver {
+
+    private WatchFaceConfig config = WatchFaceConfig.DEFAULT;
+    private boolean themed;
+    private int themeBackgroundColour;
+    private int themeDateAndTimeColour;
+
+    public void setConfig(WatchFaceConfig config) {
+        this.config = config;
+    }
+
+    public void setThemeColours(int backgroundColour, int dateAndTimeColour) {
+        themed = true;
+        themeBackgroundColour = backgroundColour;
+        themeDateAndTimeColour = dateAndTimeColour;
+    }
+
+    public int getBackgroundColour() {
+        return showsTheme() ? themeBackgroundColour : config.getBackgroundColour();
+    }
+
+    public int getDateAndTimeColour() {
+        return showsTheme() ? themeDateAndTimeColour : config.getDateAndTimeColour();
+    }
+
+    private boolean showsTheme() {
+        return themed && config.getRevision() == WatchFaceConfig.NO_REVISION;
+    }
+}
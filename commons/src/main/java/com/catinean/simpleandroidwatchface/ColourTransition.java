@@ -0,0 +1,76 @@
+package com.catinean.simpleandroidwatchface;
+
+/**
+ * Eased ARGB transition whose intermediate colours are computed once when it starts, so a frame only
+ * has to index into the table.
+ */
+public class ColourTransition {
+
+    public static final int STEPS = 32;
+
+    private final long durationMillis;
+    private final int[] table = new int[STEPS];
+
+    private long startMillis;
+    private int target;
+    private boolean active;
+
+    public ColourTransition(long durationMillis) {
+        if (durationMillis <= 0) {
+            throw new IllegalArgumentException("Duration must be positive: " + durationMillis);
+        }
+        this.durationMillis = durationMillis;
+    }
+
+    public void start(int from, int to, long nowMillis) {
+        target = to;
+        if (from == to) {
+            active = false;
+            return;
+        }
+        for (int i = 0; i < STEPS - 1; i++) {
+            float t = i / (float) (STEPS - 1);
+            float eased = t * t * (3 - 2 * t);
+            table[i] = (channel(from, to, 24, eased) << 24)
+                    | (channel(from, to, 16, eased) << 16)
+                    | (channel(from, to, 8, eased) << 8)
+                    | channel(from, to, 0, eased);
+        }
+        table[STEPS - 1] = to;
+        startMillis = nowMillis;
+        active = true;
+    }
+
+    private static int channel(int from, int to, int shift, float fraction) {
+        int start = (from >>> shift) & 0xFF;
+        int end = (to >>> shift) & 0xFF;
+        return start + Math.round((end - start) * fraction);
+    }
+
+    public int colourAt(long nowMillis) {
+        if (!active) {
+            return target;
+        }
+        long elapsed = nowMillis - startMillis;
+        if (elapsed >= durationMillis) {
+            active = false;
+            return target;
+        }
+        if (elapsed < 0) {
+            elapsed = 0;
+        }
+        return table[(int) (elapsed * (STEPS - 1) / durationMillis)];
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public void cancel() {
+        active = false;
+    }
+}
@@ -0,0 +1,179 @@
+package com.catinean.simpleandroidwatchface;
+
+public class DisplayList {
+
+    public static final int OP_FILL_RECT = 1;
+    public static final int OP_TEXT = 2;
+    public static final int OP_BITMAP = 3;
+
+    private static final int OPCODE = 0;
+    private static final int LEFT = 1;
+    private static final int TOP = 2;
+    private static final int RIGHT = 3;
+    private static final int BOTTOM = 4;
+    private static final int COLOUR = 5;
+    private static final int FONT = 6;
+    private static final int X = 7;
+    private static final int Y = 8;
+    private static final int TEXT_START = 9;
+    private static final int TEXT_LENGTH = 10;
+    private static final int OP_SIZE = 11;
+
+    private final int[] ops;
+    private final char[] chars;
+
+    private int opCount;
+    private int charCount;
+
+    public DisplayList(int maxOps, int maxChars) {
+        this.ops = new int[maxOps * OP_SIZE];
+        this.chars = new char[maxChars];
+    }
+
+    public void reset() {
+        opCount = 0;
+        charCount = 0;
+    }
+
+    public int size() {
+        return opCount;
+    }
+
+    public void fillRect(int left, int top, int right, int bottom, int colour) {
+        int op = beginOp(OP_FILL_RECT, left, top, right, bottom, colour);
+        ops[op + FONT] = 0;
+        ops[op + X] = 0;
+        ops[op + Y] = 0;
+        ops[op + TEXT_START] = 0;
+        ops[op + TEXT_LENGTH] = 0;
+    }
+
+    public void drawBitmap(int bitmapId, int left, int top, int right, int bottom) {
+        int op = beginOp(OP_BITMAP, left, top, right, bottom, 0);
+        ops[op + FONT] = bitmapId;
+        ops[op + X] = 0;
+        ops[op + Y] = 0;
+        ops[op + TEXT_START] = 0;
+        ops[op + TEXT_LENGTH] = 0;
+    }
+
+    public void drawText(int font, char[] text, int start, int length, float x, float y, int colour,
+                         int left, int top, int right, int bottom) {
+        if (charCount + length > chars.length) {
+            throw new IllegalStateException("Display list text buffer is full: " + chars.length);
+        }
+        int op = beginOp(OP_TEXT, left, top, right, bottom, colour);
+        ops[op + FONT] = font;
+        ops[op + X] = Float.floatToIntBits(x);
+        ops[op + Y] = Float.floatToIntBits(y);
+        ops[op + TEXT_START] = charCount;
+        ops[op + TEXT_LENGTH] = length;
+        System.arraycopy(text, start, chars, charCount, length);
+        charCount += length;
+    }
+
+    private int beginOp(int opcode, int left, int top, int right, int bottom, int colour) {
+        if ((opCount + 1) * OP_SIZE > ops.length) {
+            throw new IllegalStateException("Display list is full: " + ops.length / OP_SIZE + " ops");
+        }
+        int op = opCount * OP_SIZE;
+        ops[op + OPCODE] = opcode;
+        ops[op + LEFT] = left;
+        ops[op + TOP] = top;
+        ops[op + RIGHT] = right;
+        ops[op + BOTTOM] = bottom;
+        ops[op + COLOUR] = colour;
+        opCount++;
+        return op;
+    }
+
+    public int getOpcode(int index) {
+        return ops[index * OP_SIZE + OPCODE];
+    }
+
+    public int getLeft(int index) {
+        return ops[index * OP_SIZE + LEFT];
+    }
+
+    public int getTop(int index) {
+        return ops[index * OP_SIZE + TOP];
+    }
+
+    public int getRight(int index) {
+        return ops[index * OP_SIZE + RIGHT];
+    }
+
+    public int getBottom(int index) {
+        return ops[index * OP_SIZE + BOTTOM];
+    }
+
+    public boolean opEquals(int index, DisplayList other) {
+        int op = index * OP_SIZE;
+        for (int i = 0; i < OP_SIZE; i++) {
+            if (i != TEXT_START && ops[op + i] != other.ops[op + i]) {
+                return false;
+            }
+        }
+        int start = ops[op + TEXT_START];
+        int otherStart = other.ops[op + TEXT_START];
+        for (int i = 0; i < ops[op + TEXT_LENGTH]; i++) {
+            if (chars[start + i] != other.chars[otherStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void replay(Renderer renderer) {
+        replay(renderer, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    public void replay(Renderer renderer, int left, int top, int right, int bottom) {
+        for (int index = 0; index < opCount; index++) {
+            int op = index * OP_SIZE;
+            if (ops[op + RIGHT] <= left || ops[op + LEFT] >= right
+                    || ops[op + BOTTOM] <= top || ops[op + TOP] >= bottom) {
+                continue;
+            }
+            if (ops[op + OPCODE] == OP_FILL_RECT) {
+                renderer.fillRect(ops[op + LEFT], ops[op + TOP], ops[op + RIGHT], ops[op + BOTTOM], ops[op + COLOUR]);
+            } else if (ops[op + OPCODE] == OP_BITMAP) {
+                renderer.drawBitmap(ops[op + FONT], ops[op + LEFT], ops[op + TOP], ops[op + RIGHT], ops[op + BOTTOM]);
+            } else {
+                renderer.drawText(ops[op + FONT], chars, ops[op + TEXT_START], ops[op + TEXT_LENGTH],
+                        Float.intBitsToFloat(ops[op + X]), Float.intBitsToFloat(ops[op + Y]), ops[op + COLOUR]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < opCount; index++) {
+            int op = index * OP_SIZE;
+            if (ops[op + OPCODE] == OP_FILL_RECT) {
+                builder.append("fillRect");
+            } else if (ops[op + OPCODE] == OP_BITMAP) {
+                builder.append("bitmap id=").append(ops[op + FONT]);
+            } else {
+                builder.append("text font=").append(ops[op + FONT])
+                        .append(" \"").append(chars, ops[op + TEXT_START], ops[op + TEXT_LENGTH]).append('"')
+                        .append(" at ").append(Float.intBitsToFloat(ops[op + X]))
+                        .append(',').append(Float.intBitsToFloat(ops[op + Y]));
+            }
+            builder.append(" [").append(ops[op + LEFT]).append(',').append(ops[op + TOP])
+                    .append(' ').append(ops[op + RIGHT]).append(',').append(ops[op + BOTTOM]).append(']')
+                    .append(" #").append(Integer.toHexString(ops[op + COLOUR]).toUpperCase())
+                    .append('\n');
+        }
+        return builder.toString();
+    }
+
+    public interface Renderer {
+        void fillRect(int left, int top, int right, int bottom, int colour);
+
+        void drawBitmap(int bitmapId, int left, int top, int right, int bottom);
+
+        void drawText(int font, char[] text, int start, int length, float x, float y, int colour);
+    }
+}
@@ -0,0 +1,65 @@
+package com.catinean.simpleandroidwatchface;
+
+public class DisplayListDiffer {
+
+    private int left;
+    private int top;
+    private int right;
+    private int bottom;
+
+    public boolean diff(DisplayList previous, DisplayList current) {
+        clear();
+        if (previous.size() != current.size()) {
+            includeAll(previous);
+            includeAll(current);
+        } else {
+            for (int i = 0; i < current.size(); i++) {
+                if (!previous.opEquals(i, current)) {
+                    include(previous, i);
+                    include(current, i);
+                }
+            }
+        }
+        return !isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return left >= right || top >= bottom;
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    public int getBottom() {
+        return bottom;
+    }
+
+    private void clear() {
+        left = Integer.MAX_VALUE;
+        top = Integer.MAX_VALUE;
+        right = Integer.MIN_VALUE;
+        bottom = Integer.MIN_VALUE;
+    }
+
+    private void includeAll(DisplayList displayList) {
+        for (int i = 0; i < displayList.size(); i++) {
+            include(displayList, i);
+        }
+    }
+
+    private void include(DisplayList displayList, int index) {
+        left = Math.min(left, displayList.getLeft(index));
+        top = Math.min(top, displayList.getTop(index));
+        right = Math.max(right, displayList.getRight(index));
+        bottom = Math.max(bottom, displayList.getBottom(index));
+    }
+}
@@ -0,0 +1,15 @@
+package com.catinean.simpleandroidwatchface;
+
+public final class DisplayRules {
+    private DisplayRules() {
+        //no-op
+    }
+
+    public static boolean shouldTick(boolean visible, boolean inAmbientMode) {
+        return visible && !inAmbientMode;
+    }
+
+    public static boolean shouldAntiAlias(boolean inAmbientMode, boolean lowBitAmbient) {
+        return !(inAmbientMode && lowBitAmbient);
+    }
+}
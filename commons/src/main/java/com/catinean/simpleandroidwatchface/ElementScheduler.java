@@ -0,0 +1,34 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ElementScheduler implements TickScheduler.Cadence {
+
+    private final List<Element> elements = new ArrayList<Element>();
+
+    public void add(Element element) {
+        elements.add(element);
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    public Element get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public long nextBoundaryAfter(long nowMillis) {
+        long earliest = TickScheduler.NO_BOUNDARY;
+        for (int i = 0; i < elements.size(); i++) {
+            earliest = Math.min(earliest, elements.get(i).nextUpdateAfter(nowMillis));
+        }
+        return earliest;
+    }
+
+    public interface Element {
+        long nextUpdateAfter(long nowMillis);
+    }
+}
@@ -0,0 +1,189 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-capacity ring of timestamped events that any thread can record into without locking or
+ * allocating. Each slot carries the sequence number it was written with, so a reader copying the
+ * ring while writers lap it drops the slots that changed underneath it instead of reporting torn
+ * events.
+ */
+public class EventTrace {
+
+    public static final int TICK_SCHEDULED = 0;
+    public static final int TICK_BEGIN = 1;
+    public static final int TICK_END = 2;
+    public static final int DRAW_BEGIN = 3;
+    public static final int DRAW_END = 4;
+    public static final int VISIBILITY = 5;
+    public static final int AMBIENT = 6;
+    public static final int CONNECTED = 7;
+    public static final int CONNECTION_SUSPENDED = 8;
+    public static final int CONNECTION_FAILED = 9;
+    public static final int DATA_RECEIVED = 10;
+    public static final int SYNC_BEGIN = 11;
+    public static final int SYNC_END = 12;
+    public static final int CONFIG_APPLIED = 13;
+
+    static final short MAGIC = 0x4554;
+    static final byte FORMAT_VERSION = 1;
+
+    private static final String[] NAMES = {"tick.scheduled", "tick.begin", "tick.end", "draw.begin", "draw.end",
+            "visibility", "ambient", "connected", "connection.suspended", "connection.failed", "data.received",
+            "sync.begin", "sync.end", "config.applied"};
+    private static final String[] SECTION_NAMES = {null, "tick", null, "draw", null,
+            null, null, null, null, null, null,
+            "sync", null, null};
+    private static final long BUSY = -1;
+    private static final int TIME = 0;
+    private static final int TYPE = 1;
+    private static final int ARG = 2;
+    private static final int SLOT_SIZE = 3;
+
+    public static final SectionMarker NO_SECTIONS = new SectionMarker() {
+        @Override
+        public void beginSection(String name) {
+            //no-op
+        }
+
+        @Override
+        public void endSection() {
+            //no-op
+        }
+    };
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray slots;
+    private final SectionMarker sectionMarker;
+
+    public EventTrace(int capacity) {
+        this(capacity, NO_SECTIONS);
+    }
+
+    public EventTrace(int capacity, SectionMarker sectionMarker) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.slots = new AtomicLongArray(capacity * SLOT_SIZE);
+        this.sectionMarker = sectionMarker;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, BUSY);
+        }
+    }
+
+    public void record(int type, long arg) {
+        long sequence = next.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        int base = slot * SLOT_SIZE;
+        sequences.set(slot, BUSY);
+        slots.lazySet(base + TIME, System.nanoTime());
+        slots.lazySet(base + TYPE, type);
+        slots.lazySet(base + ARG, arg);
+        sequences.lazySet(slot, sequence);
+    }
+
+    public void beginSection(int type, long arg) {
+        sectionMarker.beginSection(SECTION_NAMES[type]);
+        record(type, arg);
+    }
+
+    public void endSection(int type, long arg) {
+        record(type, arg);
+        sectionMarker.endSection();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getRecordedCount() {
+        return next.get();
+    }
+
+    /**
+     * Copies the retained events, oldest first, and returns how many were copied. The arrays must
+     * hold at least {@link #getCapacity()} entries.
+     */
+    public int copyTo(long[] times, int[] types, long[] args) {
+        long end = next.get();
+        long start = Math.max(0, end - capacity);
+        int count = 0;
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) (sequence & mask);
+            int base = slot * SLOT_SIZE;
+            if (sequences.get(slot) != sequence) {
+                continue;
+            }
+            long time = slots.get(base + TIME);
+            long type = slots.get(base + TYPE);
+            long arg = slots.get(base + ARG);
+            if (sequences.get(slot) != sequence) {
+                continue;
+            }
+            times[count] = time;
+            types[count] = (int) type;
+            args[count] = arg;
+            count++;
+        }
+        return count;
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        long[] times = new long[capacity];
+        int[] types = new int[capacity];
+        long[] args = new long[capacity];
+        long wallClockMillis = System.currentTimeMillis();
+        long nanoTime = System.nanoTime();
+        int count = copyTo(times, types, args);
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeShort(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(wallClockMillis);
+        out.writeLong(nanoTime);
+        out.writeLong(getRecordedCount());
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeLong(times[i]);
+            out.writeShort(types[i]);
+            out.writeLong(args[i]);
+        }
+        out.flush();
+    }
+
+    public void dump(String prefix, PrintWriter out, int maxEvents) {
+        long[] times = new long[capacity];
+        int[] types = new int[capacity];
+        long[] args = new long[capacity];
+        long now = System.nanoTime();
+        int count = copyTo(times, types, args);
+
+        out.print(prefix);
+        out.println("capacity=" + capacity + " recorded=" + getRecordedCount() + " retained=" + count);
+        for (int i = Math.max(0, count - maxEvents); i < count; i++) {
+            out.print(prefix);
+            out.println("  -" + (now - times[i]) / 1000 + "us " + nameOf(types[i]) + " " + args[i]);
+        }
+    }
+
+    public static String nameOf(int type) {
+        return type >= 0 && type < NAMES.length ? NAMES[type] : "unknown(" + type + ")";
+    }
+
+    public interface SectionMarker {
+        void beginSection(String name);
+
+        void endSection();
+    }
+}
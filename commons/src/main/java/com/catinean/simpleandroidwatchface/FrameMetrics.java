@@ -0,0 +1,83 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+
+public class FrameMetrics {
+
+    public static final int CAUSE_TICK = 0;
+    public static final int CAUSE_TIME_TICK = 1;
+    public static final int CAUSE_DATA_CHANGE = 2;
+    public static final int CAUSE_AMBIENT_CHANGE = 3;
+    public static final int CAUSE_TIME_ZONE = 4;
+    public static final int CAUSE_REFRESH_RATE = 5;
+    public static final int CAUSE_ANIMATION = 6;
+
+    private static final String[] CAUSE_NAMES = {"tick", "onTimeTick", "dataChange", "ambientChange", "timeZone",
+            "refreshRate", "animation"};
+    private static final byte SNAPSHOT_VERSION = 1;
+
+    private final Histogram drawDurationsMicros = new Histogram(500, 1000, 2000, 4000, 8000, 16000, 33000);
+    private final Histogram tickLatenessMillis = new Histogram(1, 2, 5, 10, 20, 50, 100, 250);
+    private final long[] redraws = new long[CAUSE_NAMES.length];
+
+    public void recordDrawDuration(long durationNanos) {
+        drawDurationsMicros.record(durationNanos / 1000);
+    }
+
+    public void recordTickLateness(long latenessMillis) {
+        tickLatenessMillis.record(Math.max(0, latenessMillis));
+    }
+
+    public void recordRedraw(int cause) {
+        redraws[cause]++;
+    }
+
+    public long getRedrawCount(int cause) {
+        return redraws[cause];
+    }
+
+    public Histogram getDrawDurationsMicros() {
+        return drawDurationsMicros;
+    }
+
+    public Histogram getTickLatenessMillis() {
+        return tickLatenessMillis;
+    }
+
+    public void reset() {
+        drawDurationsMicros.reset();
+        tickLatenessMillis.reset();
+        for (int i = 0; i < redraws.length; i++) {
+            redraws[i] = 0;
+        }
+    }
+
+    public byte[] toSnapshot() {
+        int size = 2 + drawDurationsMicros.snapshotSize() + tickLatenessMillis.snapshotSize() + redraws.length * 8;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(SNAPSHOT_VERSION);
+        buffer.put((byte) redraws.length);
+        drawDurationsMicros.writeSnapshotTo(buffer);
+        tickLatenessMillis.writeSnapshotTo(buffer);
+        for (long count : redraws) {
+            buffer.putLong(count);
+        }
+        return buffer.array();
+    }
+
+    public void dump(String prefix, PrintWriter out) {
+        out.print(prefix);
+        out.println("draw duration:");
+        drawDurationsMicros.dump(prefix + "  ", "us", out);
+        out.print(prefix);
+        out.println("tick lateness:");
+        tickLatenessMillis.dump(prefix + "  ", "ms", out);
+        out.print(prefix);
+        out.println("redraws:");
+        for (int i = 0; i < redraws.length; i++) {
+            out.print(prefix);
+            out.println("  " + CAUSE_NAMES[i] + ": " + redraws[i]);
+        }
+    }
+}
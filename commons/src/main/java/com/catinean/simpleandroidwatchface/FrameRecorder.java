@@ -0,0 +1,131 @@
+package com.catinean.simpleandroidwatchface;
+
+/**
+ * Records the interactive face into a display list, one text run per element so a seconds change
+ * only dirties the seconds.
+ */
+public class FrameRecorder {
+
+    public static final int FONT_TIME = 0;
+    public static final int FONT_DATE = 1;
+    public static final int BITMAP_BACKGROUND = 0;
+
+    private final WatchClock time;
+    private final WatchFaceLayout layout;
+    private final TextMeasurer timeMeasurer;
+    private final TextMeasurer dateMeasurer;
+    private final char[] timeText = new char[ClockFormat.TIME_LENGTH_WITH_SECONDS];
+    private final char[] dateText = new char[ClockFormat.DATE_MAX_LENGTH];
+    private final ElementScheduler elements = new ElementScheduler();
+
+    private boolean showSeconds = true;
+    private int backgroundColour = WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR;
+    private int dateAndTimeColour = WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR;
+    private boolean backgroundImage;
+
+    public FrameRecorder(WatchClock time, WatchFaceLayout layout, TextMeasurer timeMeasurer, TextMeasurer dateMeasurer) {
+        this.time = time;
+        this.layout = layout;
+        this.timeMeasurer = timeMeasurer;
+        this.dateMeasurer = dateMeasurer;
+
+        elements.add(hoursAndMinutes);
+        elements.add(seconds);
+        elements.add(date);
+    }
+
+    public void addElement(WatchFaceElement element) {
+        elements.add(element);
+    }
+
+    public TickScheduler.Cadence getCadence() {
+        return elements;
+    }
+
+    public void setShowSeconds(boolean showSeconds) {
+        this.showSeconds = showSeconds;
+    }
+
+    public void setColours(int backgroundColour, int dateAndTimeColour) {
+        this.backgroundColour = backgroundColour;
+        this.dateAndTimeColour = dateAndTimeColour;
+    }
+
+    public void setBackgroundImage(boolean backgroundImage) {
+        this.backgroundImage = backgroundImage;
+    }
+
+    public void record(DisplayList displayList) {
+        int width = layout.getWidth();
+        int height = layout.getHeight();
+        displayList.reset();
+        displayList.fillRect(0, 0, width, height, backgroundColour);
+        if (backgroundImage) {
+            displayList.drawBitmap(BITMAP_BACKGROUND, 0, 0, width, height);
+        }
+        for (int i = 0; i < elements.size(); i++) {
+            ((WatchFaceElement) elements.get(i)).record(displayList);
+        }
+    }
+
+    private void recordText(DisplayList displayList, int font, TextMeasurer measurer,
+                            char[] text, int start, int length, float x, float y, float width) {
+        displayList.drawText(font, text, start, length, x, y, dateAndTimeColour,
+                (int) Math.floor(x) - 1, (int) Math.floor(y + measurer.getAscent()),
+                (int) Math.ceil(x + width) + 1, (int) Math.ceil(y + measurer.getDescent()));
+    }
+
+    private final WatchFaceElement hoursAndMinutes = new WatchFaceElement() {
+        @Override
+        public long nextUpdateAfter(long nowMillis) {
+            return nowMillis - (nowMillis % TickScheduler.MINUTE_MILLIS) + TickScheduler.MINUTE_MILLIS;
+        }
+
+        @Override
+        public void record(DisplayList displayList) {
+            int timeLength = ClockFormat.writeTime(timeText, time.hour, time.minute, time.second, showSeconds);
+            int staticLength = showSeconds ? ClockFormat.SECONDS_OFFSET : timeLength;
+            int reservedDigits = showSeconds ? ClockFormat.SECONDS_LENGTH : 0;
+            float timeX = layout.splitTimeX(timeMeasurer, timeText, staticLength, reservedDigits);
+            recordText(displayList, FONT_TIME, timeMeasurer, timeText, 0, staticLength,
+                    timeX, layout.getTimeBaseline(), timeMeasurer.measureText(timeText, 0, staticLength));
+        }
+    };
+
+    private final WatchFaceElement seconds = new WatchFaceElement() {
+        @Override
+        public long nextUpdateAfter(long nowMillis) {
+            if (!showSeconds) {
+                return TickScheduler.NO_BOUNDARY;
+            }
+            return nowMillis - (nowMillis % TickScheduler.SECOND_MILLIS) + TickScheduler.SECOND_MILLIS;
+        }
+
+        @Override
+        public void record(DisplayList displayList) {
+            if (showSeconds) {
+                ClockFormat.writeSeconds(timeText, time.second);
+                recordText(displayList, FONT_TIME, timeMeasurer,
+                        timeText, ClockFormat.SECONDS_OFFSET, ClockFormat.SECONDS_LENGTH,
+                        layout.getSecondsX(), layout.getTimeBaseline(),
+                        ClockFormat.SECONDS_LENGTH * timeMeasurer.getMaxDigitAdvance());
+            }
+        }
+    };
+
+    private final WatchFaceElement date = new WatchFaceElement() {
+        @Override
+        public long nextUpdateAfter(long nowMillis) {
+            long nextMidnight = time.getNextMidnightMillis();
+            return nextMidnight > nowMillis ? nextMidnight : TickScheduler.NO_BOUNDARY;
+        }
+
+        @Override
+        public void record(DisplayList displayList) {
+            int dateLength = ClockFormat.writeDate(dateText, time.monthDay, time.month + 1, time.year);
+            float dateX = layout.centredX(dateMeasurer, dateText, dateLength);
+            recordText(displayList, FONT_DATE, dateMeasurer, dateText, 0, dateLength,
+                    dateX, layout.getDateBaseline(), dateMeasurer.measureText(dateText, 0, dateLength));
+        }
+    };
+}
@@ -0,0 +1,85 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+
+public class Histogram {
+
+    private final long[] upperBounds;
+    private final long[] counts;
+
+    private long total;
+    private long sum;
+    private long max;
+
+    public Histogram(long... upperBounds) {
+        this.upperBounds = upperBounds.clone();
+        this.counts = new long[upperBounds.length + 1];
+    }
+
+    public void record(long value) {
+        int bucket = 0;
+        while (bucket < upperBounds.length && value > upperBounds[bucket]) {
+            bucket++;
+        }
+        counts[bucket]++;
+        total++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMean() {
+        return total == 0 ? 0 : sum / total;
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        total = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    public int snapshotSize() {
+        return (counts.length + 3) * 8;
+    }
+
+    public void writeSnapshotTo(ByteBuffer buffer) {
+        for (long count : counts) {
+            buffer.putLong(count);
+        }
+        buffer.putLong(total);
+        buffer.putLong(sum);
+        buffer.putLong(max);
+    }
+
+    public void dump(String prefix, String unit, PrintWriter out) {
+        out.print(prefix);
+        out.print("count=" + total + " mean=" + getMean() + unit + " max=" + max + unit);
+        out.println();
+        for (int i = 0; i < counts.length; i++) {
+            out.print(prefix);
+            out.print(i < upperBounds.length ? "  <=" + upperBounds[i] + unit : "  >" + upperBounds[upperBounds.length - 1] + unit);
+            out.println(": " + counts[i]);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.catinean.simpleandroidwatchface;
+
+public final class RefreshPolicy {
+
+    public static final int REASON_NONE = 0;
+    public static final int REASON_POWER_SAVE = 1;
+    public static final int REASON_LOW_BATTERY = 2;
+    public static final int REASON_PEEK_CARD = 3;
+
+    public static final int UNKNOWN_BATTERY_PERCENT = -1;
+
+    public static final RefreshPolicy DEFAULT = new RefreshPolicy(15, true, false);
+
+    private static final String[] REASON_NAMES = {"none", "powerSave", "lowBattery", "peekCard"};
+
+    private final int lowBatteryPercent;
+    private final boolean degradeInPowerSave;
+    private final boolean degradeUnderPeekCard;
+
+    public RefreshPolicy(int lowBatteryPercent, boolean degradeInPowerSave, boolean degradeUnderPeekCard) {
+        if (lowBatteryPercent < 0 || lowBatteryPercent > 100) {
+            throw new IllegalArgumentException("Battery threshold out of range: " + lowBatteryPercent);
+        }
+        this.lowBatteryPercent = lowBatteryPercent;
+        this.degradeInPowerSave = degradeInPowerSave;
+        this.degradeUnderPeekCard = degradeUnderPeekCard;
+    }
+
+    public int getLowBatteryPercent() {
+        return lowBatteryPercent;
+    }
+
+    public boolean degradesInPowerSave() {
+        return degradeInPowerSave;
+    }
+
+    public boolean degradesUnderPeekCard() {
+        return degradeUnderPeekCard;
+    }
+
+    public int degradeReasonFor(int batteryPercent, boolean charging, boolean powerSave, boolean peekCardShown) {
+        if (degradeInPowerSave && powerSave) {
+            return REASON_POWER_SAVE;
+        }
+        if (!charging && batteryPercent != UNKNOWN_BATTERY_PERCENT && batteryPercent <= lowBatteryPercent) {
+            return REASON_LOW_BATTERY;
+        }
+        if (degradeUnderPeekCard && peekCardShown) {
+            return REASON_PEEK_CARD;
+        }
+        return REASON_NONE;
+    }
+
+    public static boolean showsSeconds(int reason) {
+        return reason == REASON_NONE;
+    }
+
+    public static String reasonName(int reason) {
+        return REASON_NAMES[reason];
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshPolicy{lowBatteryPercent=" + lowBatteryPercent
+                + ", degradeInPowerSave=" + degradeInPowerSave
+                + ", degradeUnderPeekCard=" + degradeUnderPeekCard + "}";
+    }
+}
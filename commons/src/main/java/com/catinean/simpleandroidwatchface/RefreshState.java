@@ -0,0 +1,90 @@
+package com.catinean.simpleandroidwatchface;
+
+/**
+ * Power and peek card state of the watch, and the degrade reason the policy picks for it. Tells the
+ * listener only when that flips seconds on or off.
+ */
+public class RefreshState {
+
+    private final Listener listener;
+
+    private RefreshPolicy policy;
+    private int batteryPercent = RefreshPolicy.UNKNOWN_BATTERY_PERCENT;
+    private boolean charging;
+    private boolean powerSave;
+    private boolean peekCardShown;
+    private int reason = RefreshPolicy.REASON_NONE;
+
+    public RefreshState(RefreshPolicy policy, Listener listener) {
+        this.policy = policy;
+        this.listener = listener;
+    }
+
+    public void setPolicy(RefreshPolicy policy) {
+        this.policy = policy;
+    }
+
+    public RefreshPolicy getPolicy() {
+        return policy;
+    }
+
+    public void setBatteryPercent(int batteryPercent) {
+        this.batteryPercent = batteryPercent;
+    }
+
+    public int getBatteryPercent() {
+        return batteryPercent;
+    }
+
+    public void setCharging(boolean charging) {
+        this.charging = charging;
+    }
+
+    public boolean isCharging() {
+        return charging;
+    }
+
+    public void setPowerSave(boolean powerSave) {
+        this.powerSave = powerSave;
+    }
+
+    public boolean isPowerSave() {
+        return powerSave;
+    }
+
+    public void setPeekCardShown(boolean peekCardShown) {
+        this.peekCardShown = peekCardShown;
+    }
+
+    public boolean isPeekCardShown() {
+        return peekCardShown;
+    }
+
+    public int getReason() {
+        return reason;
+    }
+
+    public boolean shouldShowSeconds() {
+        return RefreshPolicy.showsSeconds(reason);
+    }
+
+    /**
+     * Returns whether the degrade reason changed.
+     */
+    public boolean evaluate() {
+        int newReason = policy.degradeReasonFor(batteryPercent, charging, powerSave, peekCardShown);
+        if (newReason == reason) {
+            return false;
+        }
+        boolean wasShowingSeconds = shouldShowSeconds();
+        reason = newReason;
+        if (wasShowingSeconds != shouldShowSeconds()) {
+            listener.onShowSecondsChanged(shouldShowSeconds());
+        }
+        return true;
+    }
+
+    public interface Listener {
+        void onShowSecondsChanged(boolean showSeconds);
+    }
+}
@@ -0,0 +1,14 @@
+package com.catinean.simpleandroidwatchface;
+
+public interface TextMeasurer {
+
+    float measureText(char[] text, int start, int length);
+
+    float getMaxDigitAdvance();
+
+    int getTextHeight();
+
+    float getAscent();
+
+    float getDescent();
+}
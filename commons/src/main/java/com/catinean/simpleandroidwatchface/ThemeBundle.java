@@ -0,0 +1,101 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.util.Arrays;
+
+public final class ThemeBundle {
+
+    public static final float DEFAULT_TIME_TEXT_SIZE_DP = 46;
+    public static final float DEFAULT_DATE_TEXT_SIZE_DP = 20;
+
+    private final long id;
+    private final int backgroundColour;
+    private final int dateAndTimeColour;
+    private final float timeTextSizeDp;
+    private final float dateTextSizeDp;
+    private final int layoutVariant;
+    private final byte[] backgroundImage;
+
+    public ThemeBundle(long id, int backgroundColour, int dateAndTimeColour, float timeTextSizeDp, float dateTextSizeDp,
+                       int layoutVariant, byte[] backgroundImage) {
+        this.id = id;
+        this.backgroundColour = backgroundColour;
+        this.dateAndTimeColour = dateAndTimeColour;
+        this.timeTextSizeDp = timeTextSizeDp;
+        this.dateTextSizeDp = dateTextSizeDp;
+        this.layoutVariant = layoutVariant;
+        this.backgroundImage = backgroundImage;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getBackgroundColour() {
+        return backgroundColour;
+    }
+
+    public int getDateAndTimeColour() {
+        return dateAndTimeColour;
+    }
+
+    public float getTimeTextSizeDp() {
+        return timeTextSizeDp;
+    }
+
+    public float getDateTextSizeDp() {
+        return dateTextSizeDp;
+    }
+
+    public int getLayoutVariant() {
+        return layoutVariant;
+    }
+
+    public boolean hasBackgroundImage() {
+        return backgroundImage != null && backgroundImage.length > 0;
+    }
+
+    public byte[] getBackgroundImage() {
+        return backgroundImage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ThemeBundle)) {
+            return false;
+        }
+        ThemeBundle other = (ThemeBundle) o;
+        return id == other.id
+                && backgroundColour == other.backgroundColour
+                && dateAndTimeColour == other.dateAndTimeColour
+                && Float.compare(timeTextSizeDp, other.timeTextSizeDp) == 0
+                && Float.compare(dateTextSizeDp, other.dateTextSizeDp) == 0
+                && layoutVariant == other.layoutVariant
+                && Arrays.equals(backgroundImage, other.backgroundImage);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (id ^ (id >>> 32));
+        result = 31 * result + backgroundColour;
+        result = 31 * result + dateAndTimeColour;
+        result = 31 * result + Float.floatToIntBits(timeTextSizeDp);
+        result = 31 * result + Float.floatToIntBits(dateTextSizeDp);
+        result = 31 * result + layoutVariant;
+        result = 31 * result + Arrays.hashCode(backgroundImage);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ThemeBundle{id=" + id
+                + ", background=" + Integer.toHexString(backgroundColour)
+                + ", dateAndTime=" + Integer.toHexString(dateAndTimeColour)
+                + ", timeTextSizeDp=" + timeTextSizeDp
+                + ", dateTextSizeDp=" + dateTextSizeDp
+                + ", layoutVariant=" + layoutVariant
+                + ", backgroundImageBytes=" + (backgroundImage == null ? 0 : backgroundImage.length) + "}";
+    }
+}
@@ -0,0 +1,66 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+public final class ThemeBundleCodec {
+    private ThemeBundleCodec() {
+        //no-op
+    }
+
+    public static final byte SCHEMA_VERSION = 1;
+    private static final short MAGIC = 0x5442;
+    private static final int HEADER_SIZE = 2 + 1 + 8;
+    private static final int FIXED_SIZE = HEADER_SIZE + 4 + 4 + 4 + 4 + 1 + 4;
+
+    public static byte[] encode(ThemeBundle theme) {
+        byte[] image = theme.hasBackgroundImage() ? theme.getBackgroundImage() : new byte[0];
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + image.length);
+        buffer.putShort(MAGIC);
+        buffer.put(SCHEMA_VERSION);
+        buffer.putLong(theme.getId());
+        buffer.putInt(theme.getBackgroundColour());
+        buffer.putInt(theme.getDateAndTimeColour());
+        buffer.putFloat(theme.getTimeTextSizeDp());
+        buffer.putFloat(theme.getDateTextSizeDp());
+        buffer.put((byte) theme.getLayoutVariant());
+        buffer.putInt(image.length);
+        buffer.put(image);
+        return buffer.array();
+    }
+
+    public static ThemeBundle decode(byte[] payload) {
+        if (payload == null || payload.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Theme bundle payload too short");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.getShort() != MAGIC) {
+            throw new IllegalArgumentException("Not a theme bundle");
+        }
+        byte version = buffer.get();
+        if (version != SCHEMA_VERSION) {
+            throw new IllegalArgumentException("Unsupported theme bundle schema version " + version);
+        }
+        try {
+            long id = buffer.getLong();
+            int backgroundColour = buffer.getInt();
+            int dateAndTimeColour = buffer.getInt();
+            float timeTextSizeDp = buffer.getFloat();
+            float dateTextSizeDp = buffer.getFloat();
+            int layoutVariant = buffer.get();
+            int imageLength = buffer.getInt();
+            if (imageLength < 0 || imageLength > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid theme bundle image length " + imageLength);
+            }
+            byte[] image = null;
+            if (imageLength > 0) {
+                image = new byte[imageLength];
+                buffer.get(image);
+            }
+            return new ThemeBundle(id, backgroundColour, dateAndTimeColour, timeTextSizeDp, dateTextSizeDp,
+                    layoutVariant, image);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated theme bundle payload of " + payload.length + " bytes", e);
+        }
+    }
+}
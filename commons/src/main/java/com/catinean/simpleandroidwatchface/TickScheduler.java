@@ -0,0 +1,161 @@
+package com.catinean.simpleandroidwatchface;
+
+public class TickScheduler {
+
+    public static final long SECOND_MILLIS = 1000;
+    public static final long MINUTE_MILLIS = 60 * SECOND_MILLIS;
+    public static final long NO_BOUNDARY = Long.MAX_VALUE;
+    public static final int NO_CAUSE = -1;
+
+    private static final long EARLY_TOLERANCE_MILLIS = 20;
+    private static final long MAX_DEFERRAL_MILLIS = SECOND_MILLIS;
+
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    private final Clock clock;
+    private final TaskHandler handler;
+    private final Listener listener;
+    private final EventTrace trace;
+
+    private Cadence cadence = every(SECOND_MILLIS);
+    private boolean running;
+    private boolean invalidatePending;
+    private int pendingCause;
+    private long scheduledAtMillis;
+
+    public TickScheduler(Clock clock, TaskHandler handler, Listener listener, EventTrace trace) {
+        this.clock = clock;
+        this.handler = handler;
+        this.listener = listener;
+        this.trace = trace;
+    }
+
+    public static Cadence every(final long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Cadence must be positive: " + periodMillis);
+        }
+        return new Cadence() {
+            @Override
+            public long nextBoundaryAfter(long nowMillis) {
+                return nowMillis - (nowMillis % periodMillis) + periodMillis;
+            }
+        };
+    }
+
+    public void setCadence(long periodMillis) {
+        setCadence(every(periodMillis));
+    }
+
+    public void setCadence(Cadence cadence) {
+        this.cadence = cadence;
+        reschedule();
+    }
+
+    public Cadence getCadence() {
+        return cadence;
+    }
+
+    public void reschedule() {
+        if (running) {
+            handler.removeCallbacks(tick);
+            long now = clock.currentTimeMillis();
+            scheduleTick(now, delayToNextBoundary(now));
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void start() {
+        handler.removeCallbacks(tick);
+        running = true;
+        scheduleTick(clock.currentTimeMillis(), 0);
+    }
+
+    public void stop() {
+        handler.removeCallbacks(tick);
+        handler.removeCallbacks(flush);
+        running = false;
+        invalidatePending = false;
+    }
+
+    public void requestInvalidate(int cause) {
+        pendingCause = cause;
+        if (invalidatePending) {
+            return;
+        }
+        invalidatePending = true;
+        if (running && delayToNextBoundary(clock.currentTimeMillis()) <= MAX_DEFERRAL_MILLIS) {
+            return;
+        }
+        handler.postDelayed(flush, 0);
+    }
+
+    public long delayToNextBoundary(long nowMillis) {
+        long boundary = cadence.nextBoundaryAfter(nowMillis);
+        return boundary == NO_BOUNDARY ? NO_BOUNDARY : boundary - nowMillis;
+    }
+
+    private void scheduleTick(long nowMillis, long delayMillis) {
+        if (delayMillis == NO_BOUNDARY) {
+            return;
+        }
+        scheduledAtMillis = nowMillis + delayMillis;
+        trace.record(EventTrace.TICK_SCHEDULED, delayMillis);
+        handler.postDelayed(tick, delayMillis);
+    }
+
+    private final Runnable tick = new Runnable() {
+        @Override
+        public void run() {
+            long now = clock.currentTimeMillis();
+            long untilBoundary = delayToNextBoundary(now);
+            if (untilBoundary <= EARLY_TOLERANCE_MILLIS) {
+                scheduleTick(now, untilBoundary);
+                return;
+            }
+
+            handler.removeCallbacks(flush);
+            int absorbedCause = invalidatePending ? pendingCause : NO_CAUSE;
+            invalidatePending = false;
+            trace.beginSection(EventTrace.TICK_BEGIN, now - scheduledAtMillis);
+            listener.onTick(now - scheduledAtMillis, absorbedCause);
+            trace.endSection(EventTrace.TICK_END, 0);
+            scheduleTick(now, untilBoundary);
+        }
+    };
+
+    private final Runnable flush = new Runnable() {
+        @Override
+        public void run() {
+            invalidatePending = false;
+            listener.onInvalidateRequested(pendingCause);
+        }
+    };
+
+    public interface Cadence {
+        long nextBoundaryAfter(long nowMillis);
+    }
+
+    public interface Clock {
+        long currentTimeMillis();
+    }
+
+    public interface TaskHandler {
+        void postDelayed(Runnable task, long delayMillis);
+
+        void removeCallbacks(Runnable task);
+    }
+
+    public interface Listener {
+        void onTick(long latenessMillis, int absorbedCause);
+
+        void onInvalidateRequested(int cause);
+    }
+}
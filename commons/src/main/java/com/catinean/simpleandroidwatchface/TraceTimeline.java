@@ -0,0 +1,85 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Prints an exported {@link EventTrace} as a timeline, one event per line, with the wall-clock time,
+ * the gap since the previous event and the duration of every closed section.
+ */
+public final class TraceTimeline {
+    private TraceTimeline() {
+        //no-op
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: TraceTimeline <event-trace.bin>");
+            System.exit(1);
+        }
+        InputStream in = new FileInputStream(args[0]);
+        PrintWriter out = new PrintWriter(System.out);
+        try {
+            print(in, out);
+        } finally {
+            in.close();
+            out.flush();
+        }
+    }
+
+    public static void print(InputStream stream, PrintWriter out) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        try {
+            if (in.readShort() != EventTrace.MAGIC) {
+                throw new IllegalArgumentException("Not an event trace");
+            }
+            byte version = in.readByte();
+            if (version != EventTrace.FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported event trace version " + version);
+            }
+            long wallClockMillis = in.readLong();
+            long nanoTime = in.readLong();
+            long recorded = in.readLong();
+            int count = in.readInt();
+
+            SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss.SSS", Locale.US);
+            long[] openSections = new long[EventTrace.CONFIG_APPLIED + 1];
+            out.println("recorded=" + recorded + " retained=" + count);
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                long time = in.readLong();
+                int type = in.readShort();
+                long arg = in.readLong();
+
+                long gapMicros = i == 0 ? 0 : (time - previous) / 1000;
+                previous = time;
+                out.print(format.format(new Date(wallClockMillis - (nanoTime - time) / 1000000)));
+                out.print(String.format(Locale.US, " %+10dus  %-20s %d", gapMicros, EventTrace.nameOf(type), arg));
+                if (isSectionBegin(type)) {
+                    openSections[type] = time;
+                } else if (isSectionEnd(type) && openSections[type - 1] != 0) {
+                    out.print(String.format(Locale.US, "  (%dus)", (time - openSections[type - 1]) / 1000));
+                    openSections[type - 1] = 0;
+                }
+                out.println();
+            }
+        } catch (EOFException e) {
+            throw new IllegalArgumentException("Truncated event trace", e);
+        }
+    }
+
+    private static boolean isSectionBegin(int type) {
+        return type == EventTrace.TICK_BEGIN || type == EventTrace.DRAW_BEGIN || type == EventTrace.SYNC_BEGIN;
+    }
+
+    private static boolean isSectionEnd(int type) {
+        return type == EventTrace.TICK_END || type == EventTrace.DRAW_END || type == EventTrace.SYNC_END;
+    }
+}
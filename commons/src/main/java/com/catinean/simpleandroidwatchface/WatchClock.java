@@ -0,0 +1,119 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+public class WatchClock {
+
+    private static final long SECOND_MILLIS = 1000;
+    private static final long MINUTE_MILLIS = 60 * SECOND_MILLIS;
+    private static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+
+    private final Calendar calendar;
+
+    private TimeZone timeZone;
+    private long computedAtMillis = Long.MAX_VALUE;
+    private long validUntilMillis = Long.MIN_VALUE;
+    private int offsetMillis;
+    private long nextMidnightMillis;
+    private long nextTransitionMillis;
+
+    public int hour;
+    public int minute;
+    public int second;
+    public int monthDay;
+    public int month;
+    public int year;
+    public int yearDay;
+
+    public WatchClock(TimeZone timeZone) {
+        this.timeZone = timeZone;
+        this.calendar = new GregorianCalendar(timeZone);
+    }
+
+    public void setTimeZone(TimeZone timeZone) {
+        this.timeZone = timeZone;
+        calendar.setTimeZone(timeZone);
+        invalidate();
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    public void invalidate() {
+        computedAtMillis = Long.MAX_VALUE;
+        validUntilMillis = Long.MIN_VALUE;
+    }
+
+    public void update(long nowMillis) {
+        if (nowMillis < computedAtMillis || nowMillis >= validUntilMillis) {
+            recompute(nowMillis);
+        }
+
+        long millisOfDay = floorMod(nowMillis + offsetMillis, DAY_MILLIS);
+        hour = (int) (millisOfDay / HOUR_MILLIS);
+        minute = (int) ((millisOfDay / MINUTE_MILLIS) % 60);
+        second = (int) ((millisOfDay / SECOND_MILLIS) % 60);
+    }
+
+    public long getNextMidnightMillis() {
+        return nextMidnightMillis;
+    }
+
+    public long getNextTransitionMillis() {
+        return nextTransitionMillis;
+    }
+
+    public int getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    private void recompute(long nowMillis) {
+        offsetMillis = timeZone.getOffset(nowMillis);
+        long localDay = floorDiv(nowMillis + offsetMillis, DAY_MILLIS);
+        nextMidnightMillis = (localDay + 1) * DAY_MILLIS - offsetMillis;
+        nextTransitionMillis = findTransitionBefore(nowMillis, nextMidnightMillis);
+
+        calendar.setTimeInMillis(nowMillis);
+        monthDay = calendar.get(Calendar.DAY_OF_MONTH);
+        month = calendar.get(Calendar.MONTH);
+        year = calendar.get(Calendar.YEAR);
+        yearDay = calendar.get(Calendar.DAY_OF_YEAR) - 1;
+
+        computedAtMillis = nowMillis;
+        validUntilMillis = Math.min(nextMidnightMillis, nextTransitionMillis);
+    }
+
+    private long findTransitionBefore(long fromMillis, long toMillis) {
+        if (timeZone.getOffset(toMillis) == offsetMillis) {
+            return Long.MAX_VALUE;
+        }
+
+        long unchanged = fromMillis;
+        long changed = toMillis;
+        while (changed - unchanged > 1) {
+            long middle = unchanged + (changed - unchanged) / 2;
+            if (timeZone.getOffset(middle) == offsetMillis) {
+                unchanged = middle;
+            } else {
+                changed = middle;
+            }
+        }
+        return changed;
+    }
+
+    private static long floorDiv(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        if ((dividend % divisor != 0) && ((dividend < 0) != (divisor < 0))) {
+            quotient--;
+        }
+        return quotient;
+    }
+
+    private static long floorMod(long dividend, long divisor) {
+        return dividend - floorDiv(dividend, divisor) * divisor;
+    }
+}
@@ -0,0 +1,85 @@
+package com.catinean.simpleandroidwatchface;
+
+public final class WatchFaceConfig {
+
+    public static final int DEFAULT_BACKGROUND_COLOUR = 0xFF000000;
+    public static final int DEFAULT_DATE_AND_TIME_COLOUR = 0xFFFFFFFF;
+    public static final long NO_REVISION = -1;
+
+    public static final WatchFaceConfig DEFAULT =
+            new WatchFaceConfig(DEFAULT_BACKGROUND_COLOUR, DEFAULT_DATE_AND_TIME_COLOUR, NO_REVISION);
+
+    private final int backgroundColour;
+    private final int dateAndTimeColour;
+    private final long revision;
+
+    public WatchFaceConfig(int backgroundColour, int dateAndTimeColour, long revision) {
+        this.backgroundColour = backgroundColour;
+        this.dateAndTimeColour = dateAndTimeColour;
+        this.revision = revision;
+    }
+
+    public int getBackgroundColour() {
+        return backgroundColour;
+    }
+
+    public int getDateAndTimeColour() {
+        return dateAndTimeColour;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * The phone's revision counter restarts after a reinstall or on a new phone, so a lower revision
+     * only means "stale" when it carries nothing new.
+     */
+    public boolean supersedes(WatchFaceConfig applied) {
+        return !hasSameColoursAs(applied) || revision > applied.revision;
+    }
+
+    public boolean hasSameColoursAs(WatchFaceConfig other) {
+        return backgroundColour == other.backgroundColour
+                && dateAndTimeColour == other.dateAndTimeColour;
+    }
+
+    public WatchFaceConfig withBackgroundColour(int colour) {
+        return new WatchFaceConfig(colour, dateAndTimeColour, revision);
+    }
+
+    public WatchFaceConfig withDateAndTimeColour(int colour) {
+        return new WatchFaceConfig(backgroundColour, colour, revision);
+    }
+
+    public WatchFaceConfig withRevision(long revision) {
+        return new WatchFaceConfig(backgroundColour, dateAndTimeColour, revision);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WatchFaceConfig)) {
+            return false;
+        }
+        WatchFaceConfig other = (WatchFaceConfig) o;
+        return hasSameColoursAs(other) && revision == other.revision;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = backgroundColour;
+        result = 31 * result + dateAndTimeColour;
+        result = 31 * result + (int) (revision ^ (revision >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "WatchFaceConfig{background=" + Integer.toHexString(backgroundColour)
+                + ", dateAndTime=" + Integer.toHexString(dateAndTimeColour)
+                + ", revision=" + revision + "}";
+    }
+}
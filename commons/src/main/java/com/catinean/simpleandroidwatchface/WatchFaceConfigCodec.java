@@ -0,0 +1,41 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+public final class WatchFaceConfigCodec {
+    private WatchFaceConfigCodec() {
+        //no-op
+    }
+
+    public static final byte SCHEMA_VERSION = 1;
+    private static final int PAYLOAD_SIZE = 1 + 8 + 4 + 4;
+
+    public static byte[] encode(WatchFaceConfig config) {
+        ByteBuffer buffer = ByteBuffer.allocate(PAYLOAD_SIZE);
+        buffer.put(SCHEMA_VERSION);
+        buffer.putLong(config.getRevision());
+        buffer.putInt(config.getBackgroundColour());
+        buffer.putInt(config.getDateAndTimeColour());
+        return buffer.array();
+    }
+
+    public static WatchFaceConfig decode(byte[] payload) {
+        if (payload == null || payload.length == 0) {
+            throw new IllegalArgumentException("Empty watch face config payload");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte version = buffer.get();
+        if (version != SCHEMA_VERSION) {
+            throw new IllegalArgumentException("Unsupported watch face config schema version " + version);
+        }
+        try {
+            long revision = buffer.getLong();
+            int backgroundColour = buffer.getInt();
+            int dateAndTimeColour = buffer.getInt();
+            return new WatchFaceConfig(backgroundColour, dateAndTimeColour, revision);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated watch face config payload of " + payload.length + " bytes", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.catinean.simpleandroidwatchface;
+
+public class WatchFaceController {
+
+    private final TickScheduler tickScheduler;
+    private final FrameMetrics frameMetrics;
+    private final Host host;
+    private final EventTrace trace;
+
+    private boolean visible;
+    private boolean inAmbientMode;
+
+    public WatchFaceController(TickScheduler.Clock clock, TickScheduler.TaskHandler handler,
+                               FrameMetrics frameMetrics, EventTrace trace, Host host) {
+        this.tickScheduler = new TickScheduler(clock, handler, tickListener, trace);
+        this.frameMetrics = frameMetrics;
+        this.trace = trace;
+        this.host = host;
+    }
+
+    public void setInitialState(boolean visible, boolean inAmbientMode) {
+        this.visible = visible;
+        this.inAmbientMode = inAmbientMode;
+        startTimerIfNecessary();
+    }
+
+    public void setCadence(TickScheduler.Cadence cadence) {
+        tickScheduler.setCadence(cadence);
+    }
+
+    public void onVisibilityChanged(boolean visible) {
+        this.visible = visible;
+        trace.record(EventTrace.VISIBILITY, visible ? 1 : 0);
+        startTimerIfNecessary();
+    }
+
+    public void onAmbientModeChanged(boolean inAmbientMode) {
+        this.inAmbientMode = inAmbientMode;
+        trace.record(EventTrace.AMBIENT, inAmbientMode ? 1 : 0);
+        invalidateFor(FrameMetrics.CAUSE_AMBIENT_CHANGE);
+        startTimerIfNecessary();
+    }
+
+    public void onTimeTick() {
+        invalidateFor(FrameMetrics.CAUSE_TIME_TICK);
+    }
+
+    public void onTimeZoneChanged() {
+        tickScheduler.requestInvalidate(FrameMetrics.CAUSE_TIME_ZONE);
+    }
+
+    public void onDataChanged() {
+        tickScheduler.requestInvalidate(FrameMetrics.CAUSE_DATA_CHANGE);
+    }
+
+    public void onCadenceChanged() {
+        tickScheduler.reschedule();
+        tickScheduler.requestInvalidate(FrameMetrics.CAUSE_REFRESH_RATE);
+    }
+
+    public void onFrameDrawn(boolean animating) {
+        if (animating) {
+            invalidateIfNecessary(FrameMetrics.CAUSE_ANIMATION);
+        }
+    }
+
+    public boolean isTicking() {
+        return tickScheduler.isRunning();
+    }
+
+    public void stop() {
+        tickScheduler.stop();
+    }
+
+    private void startTimerIfNecessary() {
+        if (DisplayRules.shouldTick(visible, inAmbientMode)) {
+            tickScheduler.start();
+        } else {
+            tickScheduler.stop();
+        }
+    }
+
+    private final TickScheduler.Listener tickListener = new TickScheduler.Listener() {
+        @Override
+        public void onTick(long latenessMillis, int absorbedCause) {
+            frameMetrics.recordTickLateness(latenessMillis);
+            invalidateIfNecessary(absorbedCause == TickScheduler.NO_CAUSE ? FrameMetrics.CAUSE_TICK : absorbedCause);
+        }
+
+        @Override
+        public void onInvalidateRequested(int cause) {
+            invalidateIfNecessary(cause);
+        }
+    };
+
+    private void invalidateIfNecessary(int cause) {
+        if (DisplayRules.shouldTick(visible, inAmbientMode)) {
+            invalidateFor(cause);
+        }
+    }
+
+    private void invalidateFor(int cause) {
+        frameMetrics.recordRedraw(cause);
+        host.invalidate();
+    }
+
+    public interface Host {
+        void invalidate();
+    }
+}
@@ -0,0 +1,6 @@
+package com.catinean.simpleandroidwatchface;
+
+public interface WatchFaceElement extends ElementScheduler.Element {
+
+    void record(DisplayList displayList);
+}
@@ -0,0 +1,78 @@
+package com.catinean.simpleandroidwatchface;
+
+public class WatchFaceLayout {
+
+    public static final int VARIANT_DATE_BELOW = 0;
+    public static final int VARIANT_DATE_ABOVE = 1;
+
+    private static final float DATE_SPACING = 10.0f;
+
+    private int variant = VARIANT_DATE_BELOW;
+
+    private int width = -1;
+    private int height = -1;
+    private float centerX;
+    private float timeBaseline;
+    private float dateBaseline;
+    private float secondsX;
+
+    public boolean isLaidOutFor(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    public void setVariant(int variant) {
+        if (this.variant != variant) {
+            this.variant = variant;
+            width = -1;
+            height = -1;
+        }
+    }
+
+    public int getVariant() {
+        return variant;
+    }
+
+    public void update(int width, int height, TextMeasurer timeMeasurer, TextMeasurer dateMeasurer) {
+        this.width = width;
+        this.height = height;
+        centerX = width / 2.0f;
+        timeBaseline = height / 2.0f + (timeMeasurer.getTextHeight() / 2.0f);
+        if (variant == VARIANT_DATE_ABOVE) {
+            dateBaseline = timeBaseline - timeMeasurer.getTextHeight() - DATE_SPACING;
+        } else {
+            dateBaseline = timeBaseline + dateMeasurer.getTextHeight() + DATE_SPACING;
+        }
+    }
+
+    public float centredX(TextMeasurer measurer, char[] text, int length) {
+        return centerX - (measurer.measureText(text, 0, length) / 2.0f);
+    }
+
+    public float splitTimeX(TextMeasurer measurer, char[] text, int staticLength, int reservedDigits) {
+        float staticWidth = measurer.measureText(text, 0, staticLength);
+        float reservedWidth = reservedDigits * measurer.getMaxDigitAdvance();
+        float timeX = centerX - ((staticWidth + reservedWidth) / 2.0f);
+        secondsX = timeX + staticWidth;
+        return timeX;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public float getTimeBaseline() {
+        return timeBaseline;
+    }
+
+    public float getDateBaseline() {
+        return dateBaseline;
+    }
+
+    public float getSecondsX() {
+        return secondsX;
+    }
+}
@@ -8,4 +8,10 @@ public final class WatchfaceSyncCommons {
     public static final String PATH = "/simple_watch_face_config";
     public static final String KEY_BACKGROUND_COLOUR = "KEY_BACKGROUND_COLOUR";
     public static final String KEY_DATE_TIME_COLOUR = "KEY_DATE_TIME_COLOUR";
+    public static final String KEY_CONFIG = "KEY_CONFIG";
+    public static final String PREVIEW_PATH = "/simple_watch_face_preview";
+    public static final String PREVIEW_END_PATH = "/simple_watch_face_preview_end";
+    public static final String THEME_PATH = "/simple_watch_face_theme";
+    public static final String KEY_THEME = "KEY_THEME";
+    public static final String KEY_THEME_ID = "KEY_THEME_ID";
 }
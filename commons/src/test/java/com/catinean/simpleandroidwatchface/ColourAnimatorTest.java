@@ -0,0 +1,70 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColourAnimatorTest {
+
+    private static final long DURATION_MILLIS = 300;
+    private static final int BLUE = 0xFF336699;
+    private static final int YELLOW = 0xFFFFCC00;
+
+    private final ColourAnimator animator = new ColourAnimator(DURATION_MILLIS);
+
+    @Test
+    public void firstColoursApplyWithoutFadingFromDefaults() {
+        assertTrue(animator.animateTo(BLUE, YELLOW, 1000));
+
+        assertFalse(animator.isAnimating());
+        assertEquals(BLUE, animator.getBackgroundColour(1000));
+        assertEquals(YELLOW, animator.getDateAndTimeColour(1000));
+    }
+
+    @Test
+    public void laterChangeFadesUntilTheTransitionEnds() {
+        animator.animateTo(BLUE, YELLOW, 1000);
+
+        animator.animateTo(WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR, YELLOW, 2000);
+
+        assertTrue(animator.isAnimating());
+        assertFalse(animator.isDateAndTimeAnimating());
+        assertEquals(BLUE, animator.getBackgroundColour(2000));
+        assertEquals(WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR, animator.getBackgroundColour(2000 + DURATION_MILLIS));
+        assertFalse(animator.isAnimating());
+    }
+
+    @Test
+    public void unchangedColoursDoNotRestartTheFade() {
+        animator.animateTo(BLUE, YELLOW, 1000);
+
+        assertFalse(animator.animateTo(BLUE, YELLOW, 2000));
+        assertFalse(animator.isAnimating());
+    }
+
+    @Test
+    public void enteringAmbientFinishesTheFadeOnTarget() {
+        animator.animateTo(BLUE, YELLOW, 1000);
+        animator.animateTo(WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR, WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR, 2000);
+
+        animator.setAmbientMode(true);
+
+        assertFalse(animator.isAnimating());
+        assertEquals(WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR, animator.getBackgroundColour(2010));
+        assertEquals(WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR, animator.getDateAndTimeColour(2010));
+    }
+
+    @Test
+    public void changeInAmbientAppliesAtOnce() {
+        animator.animateTo(BLUE, YELLOW, 1000);
+        animator.setAmbientMode(true);
+
+        animator.animateTo(YELLOW, BLUE, 2000);
+        animator.setAmbientMode(false);
+
+        assertFalse(animator.isAnimating());
+        assertEquals(YELLOW, animator.getBackgroundColour(2010));
+    }
+}
@@ -0,0 +1,48 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ColourResolverTest {
+
+    private static final WatchFaceConfig SYNCED = new WatchFaceConfig(0xFF336699, 0xFFFFCC00, 5);
+    private static final int THEME_BACKGROUND = 0xFF102030;
+    private static final int THEME_DATE_AND_TIME = 0xFFEEEEEE;
+
+    private final ColourResolver resolver = new ColourResolver();
+
+    @Test
+    public void themeArrivingAfterConfigKeepsConfigColours() {
+        resolver.setConfig(SYNCED);
+        resolver.setThemeColours(THEME_BACKGROUND, THEME_DATE_AND_TIME);
+
+        assertColours(SYNCED.getBackgroundColour(), SYNCED.getDateAndTimeColour());
+    }
+
+    @Test
+    public void configArrivingAfterThemeShowsConfigColours() {
+        resolver.setThemeColours(THEME_BACKGROUND, THEME_DATE_AND_TIME);
+        resolver.setConfig(SYNCED);
+
+        assertColours(SYNCED.getBackgroundColour(), SYNCED.getDateAndTimeColour());
+    }
+
+    @Test
+    public void themeColoursShowUntilAConfigIsSynced() {
+        resolver.setConfig(WatchFaceConfig.DEFAULT);
+        resolver.setThemeColours(THEME_BACKGROUND, THEME_DATE_AND_TIME);
+
+        assertColours(THEME_BACKGROUND, THEME_DATE_AND_TIME);
+    }
+
+    @Test
+    public void defaultsWithoutConfigOrTheme() {
+        assertColours(WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR, WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR);
+    }
+
+    private void assertColours(int backgroundColour, int dateAndTimeColour) {
+        assertEquals(backgroundColour, resolver.getBackgroundColour());
+        assertEquals(dateAndTimeColour, resolver.getDateAndTimeColour());
+    }
+}
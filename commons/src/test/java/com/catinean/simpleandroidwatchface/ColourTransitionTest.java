@@ -0,0 +1,52 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColourTransitionTest {
+
+    private static final long DURATION_MILLIS = 310;
+    private static final int BLACK = 0xFF000000;
+    private static final int WHITE = 0xFFFFFFFF;
+
+    private final ColourTransition transition = new ColourTransition(DURATION_MILLIS);
+
+    @Test
+    public void startsAtSourceAndStepsThroughTheEasedTable() {
+        transition.start(BLACK, WHITE, 1000);
+
+        assertEquals(BLACK, transition.colourAt(1000));
+        assertEquals(0xFF010101, transition.colourAt(1000 + DURATION_MILLIS / (ColourTransition.STEPS - 1)));
+        assertEquals(0xFF797979, transition.colourAt(1000 + DURATION_MILLIS / 2));
+        assertTrue(transition.isActive());
+    }
+
+    @Test
+    public void settlesOnTargetAndStopsOnceDurationElapses() {
+        transition.start(BLACK, 0xFF336699, 1000);
+
+        assertEquals(0xFF336699, transition.colourAt(1000 + DURATION_MILLIS));
+        assertFalse(transition.isActive());
+    }
+
+    @Test
+    public void sameColourNeedsNoTransition() {
+        transition.start(WHITE, WHITE, 1000);
+
+        assertFalse(transition.isActive());
+        assertEquals(WHITE, transition.colourAt(1000));
+    }
+
+    @Test
+    public void cancelJumpsToTarget() {
+        transition.start(BLACK, WHITE, 1000);
+
+        transition.cancel();
+
+        assertFalse(transition.isActive());
+        assertEquals(WHITE, transition.colourAt(1010));
+    }
+}
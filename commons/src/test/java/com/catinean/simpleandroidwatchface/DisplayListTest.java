@@ -0,0 +1,96 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DisplayListTest {
+
+    private static final int FONT_TIME = 0;
+    private static final int FONT_DATE = 1;
+    private static final int BLACK = 0xFF000000;
+    private static final int WHITE = 0xFFFFFFFF;
+
+    private final DisplayListDiffer differ = new DisplayListDiffer();
+
+    @Test
+    public void identicalFramesNeedNoReplay() {
+        DisplayList previous = recordFrame("13.45", "07", "18.10.2026", WHITE);
+        DisplayList current = recordFrame("13.45", "07", "18.10.2026", WHITE);
+
+        assertFalse(differ.diff(previous, current));
+        assertTrue(differ.isEmpty());
+    }
+
+    @Test
+    public void secondsChangeDirtiesOnlyTheSecondsRun() {
+        DisplayList previous = recordFrame("13.45", "07", "18.10.2026", WHITE);
+        DisplayList current = recordFrame("13.45", "08", "18.10.2026", WHITE);
+
+        assertTrue(differ.diff(previous, current));
+        assertDirtyRegion(209, 110, 251, 160);
+    }
+
+    @Test
+    public void colourChangeDirtiesEveryTextRun() {
+        DisplayList previous = recordFrame("13.45", "07", "18.10.2026", WHITE);
+        DisplayList current = recordFrame("13.45", "07", "18.10.2026", 0xFFFF0000);
+
+        assertTrue(differ.diff(previous, current));
+        assertDirtyRegion(99, 110, 251, 194);
+    }
+
+    @Test
+    public void replayInRegionSkipsOpsOutsideIt() {
+        DisplayList frame = recordFrame("13.45", "07", "18.10.2026", WHITE);
+        RecordingRenderer renderer = new RecordingRenderer();
+
+        frame.replay(renderer, 209, 110, 251, 160);
+
+        assertEquals("fill;text 07;", renderer.calls.toString());
+    }
+
+    private void assertDirtyRegion(int left, int top, int right, int bottom) {
+        assertEquals(left, differ.getLeft());
+        assertEquals(top, differ.getTop());
+        assertEquals(right, differ.getRight());
+        assertEquals(bottom, differ.getBottom());
+    }
+
+    private static DisplayList recordFrame(String hoursAndMinutes, String seconds, String date, int colour) {
+        DisplayList frame = new DisplayList(8, 64);
+        frame.fillRect(0, 0, 320, 320, BLACK);
+        recordText(frame, FONT_TIME, hoursAndMinutes, 100, 150, colour, 99, 110, 201, 160);
+        recordText(frame, FONT_TIME, seconds, 210, 150, colour, 209, 110, 251, 160);
+        recordText(frame, FONT_DATE, date, 110, 190, colour, 109, 174, 211, 194);
+        return frame;
+    }
+
+    private static void recordText(DisplayList frame, int font, String text, float x, float y, int colour,
+                                   int left, int top, int right, int bottom) {
+        char[] chars = text.toCharArray();
+        frame.drawText(font, chars, 0, chars.length, x, y, colour, left, top, right, bottom);
+    }
+
+    private static class RecordingRenderer implements DisplayList.Renderer {
+
+        private final StringBuilder calls = new StringBuilder();
+
+        @Override
+        public void fillRect(int left, int top, int right, int bottom, int colour) {
+            calls.append("fill;");
+        }
+
+        @Override
+        public void drawBitmap(int bitmapId, int left, int top, int right, int bottom) {
+            calls.append("bitmap;");
+        }
+
+        @Override
+        public void drawText(int font, char[] text, int start, int length, float x, float y, int colour) {
+            calls.append("text ").append(text, start, length).append(';');
+        }
+    }
+}
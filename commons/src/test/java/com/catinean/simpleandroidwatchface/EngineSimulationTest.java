@@ -0,0 +1,123 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EngineSimulationTest {
+
+    private static final String AMBIENT_HOUR = ""
+            + "00:00:00 visible\n"
+            + "00:00:00 ambient\n"
+            + "01:00:00 end\n";
+
+    private static final String CREATED_IN_AMBIENT_HOUR = ""
+            + "00:00:00 created ambient\n"
+            + "00:00:00 visible\n"
+            + "01:00:00 end\n";
+
+    private static final String INTERACTIVE_HOUR = ""
+            + "00:00:00 visible\n"
+            + "01:00:00 end\n";
+
+    private static final String COLOUR_CHANGE_MINUTE = ""
+            + "00:00:00 visible\n"
+            + "00:00:10 colour FF336699\n"
+            + "00:01:00 end\n";
+
+    private static final String COLOUR_CHANGE_THEN_AMBIENT = ""
+            + "00:00:00 visible\n"
+            + "00:00:10 colour FF336699\n"
+            + "00:00:11 ambient\n"
+            + "00:01:00 end\n";
+
+    private static final String TYPICAL_HOUR = ""
+            + "# ambient most of the time, a ten second wrist raise every ten minutes\n"
+            + "00:00:00 visible\n"
+            + "00:00:00 ambient\n"
+            + "00:05:00 interactive\n"
+            + "00:05:10 ambient\n"
+            + "00:15:00 interactive\n"
+            + "00:15:03 data\n"
+            + "00:15:10 ambient\n"
+            + "00:25:00 interactive\n"
+            + "00:25:02 peek\n"
+            + "00:25:08 unpeek\n"
+            + "00:25:10 ambient\n"
+            + "00:35:00 interactive\n"
+            + "00:35:10 ambient\n"
+            + "00:40:00 timezone\n"
+            + "00:45:00 interactive\n"
+            + "00:45:10 ambient\n"
+            + "00:55:00 interactive\n"
+            + "00:55:10 hidden\n"
+            + "01:00:00 end\n";
+
+    @Test
+    public void ambientHourWakesOncePerMinute() throws IOException {
+        EngineSimulator.Report report = new EngineSimulator(RefreshPolicy.DEFAULT).run(AMBIENT_HOUR);
+
+        assertTrue(report.toString(), report.ticks <= 1);
+        assertEquals(62, report.draws);
+        assertTrue(report.toString(), report.wakeupsPerHour() <= 61);
+    }
+
+    @Test
+    public void engineCreatedInAmbientDoesNotTickWithoutAnAmbientCallback() throws IOException {
+        EngineSimulator.Report report = new EngineSimulator(RefreshPolicy.DEFAULT).run(CREATED_IN_AMBIENT_HOUR);
+
+        assertEquals(0, report.ticks);
+        assertTrue(report.toString(), report.wakeupsPerHour() <= 61);
+    }
+
+    @Test
+    public void interactiveHourTicksOncePerSecond() throws IOException {
+        EngineSimulator.Report report = new EngineSimulator(RefreshPolicy.DEFAULT).run(INTERACTIVE_HOUR);
+
+        assertEquals(3601, report.ticks);
+        assertTrue(report.toString(), report.wakeupsPerHour() <= 3601);
+    }
+
+    @Test
+    public void lowBatteryDropsToMinuteWakeups() throws IOException {
+        EngineSimulator.Report report = new EngineSimulator(RefreshPolicy.DEFAULT)
+                .run("00:00:00 battery 10\n" + INTERACTIVE_HOUR);
+
+        assertEquals(61, report.ticks);
+        assertTrue(report.toString(), report.wakeupsPerHour() <= 61);
+    }
+
+    @Test
+    public void typicalHourStaysWithinWakeupBudget() throws IOException {
+        EngineSimulator.Report report = new EngineSimulator(RefreshPolicy.DEFAULT).run(TYPICAL_HOUR);
+
+        assertTrue(report.toString(), report.wakeupsPerHour() <= 150);
+        assertTrue(report.toString(), report.invalidationsPerHour() <= 150);
+    }
+
+    @Test
+    public void peekCardPolicyRemovesSecondTicksUnderTheCard() throws IOException {
+        EngineSimulator.Report withoutPolicy = new EngineSimulator(RefreshPolicy.DEFAULT).run(TYPICAL_HOUR);
+        EngineSimulator.Report withPolicy = new EngineSimulator(new RefreshPolicy(15, true, true)).run(TYPICAL_HOUR);
+
+        assertTrue(withPolicy + " vs " + withoutPolicy, withPolicy.ticks < withoutPolicy.ticks);
+    }
+
+    @Test
+    public void colourChangeBurstsFramesOnlyForTheTransition() throws IOException {
+        EngineSimulator.Report report = new EngineSimulator(RefreshPolicy.DEFAULT).run(COLOUR_CHANGE_MINUTE);
+
+        assertTrue(report.toString(), report.animationFrames >= 15 && report.animationFrames <= 20);
+        assertEquals(60, report.ticks);
+    }
+
+    @Test
+    public void ambientEntryCancelsTransitionWithoutExtraFrames() throws IOException {
+        EngineSimulator.Report report = new EngineSimulator(RefreshPolicy.DEFAULT).run(COLOUR_CHANGE_THEN_AMBIENT);
+
+        assertTrue(report.toString(), report.animationFrames <= 1);
+    }
+}
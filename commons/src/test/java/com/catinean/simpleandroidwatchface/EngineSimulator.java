@@ -0,0 +1,223 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+class EngineSimulator {
+
+    private static final long START_MILLIS = 1760745600000L;
+    private static final long HOUR_MILLIS = 60 * TickScheduler.MINUTE_MILLIS;
+    private static final long INTERACTIVE_DRAW_COST_MICROS = 1500;
+    private static final long AMBIENT_DRAW_COST_MICROS = 300;
+    private static final int TRACE_CAPACITY = 256;
+    private static final long FRAME_MILLIS = 16;
+    private static final long COLOUR_TRANSITION_MILLIS = 300;
+
+    private final SimulatedLooper looper = new SimulatedLooper(START_MILLIS);
+    private final FrameMetrics frameMetrics = new FrameMetrics();
+    private final ElementScheduler elements = new ElementScheduler();
+    private final RefreshState refreshState;
+    private final ColourAnimator colourAnimator = new ColourAnimator(COLOUR_TRANSITION_MILLIS);
+    private final WatchFaceController controller;
+
+    private boolean inAmbientMode;
+    private boolean drawPending;
+    private int publishedColour = WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR;
+    private long invalidations;
+    private long draws;
+    private long drawCostMicros;
+
+    EngineSimulator(RefreshPolicy policy) {
+        this.refreshState = new RefreshState(policy, refreshListener);
+        this.controller = new WatchFaceController(looper, looper, frameMetrics, new EventTrace(TRACE_CAPACITY), host);
+        elements.add(minutes);
+        elements.add(seconds);
+        controller.setCadence(elements);
+    }
+
+    Report run(String script) throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(script));
+        long endMillis = START_MILLIS;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            endMillis = START_MILLIS + parseOffset(parts[0]);
+            looper.runUntil(endMillis);
+            apply(parts[1], parts.length > 2 ? parts[2] : null);
+        }
+        controller.stop();
+        looper.runUntil(endMillis);
+        return new Report(endMillis - START_MILLIS, looper.getWakeups(), invalidations, draws, drawCostMicros,
+                frameMetrics.getRedrawCount(FrameMetrics.CAUSE_TICK),
+                frameMetrics.getRedrawCount(FrameMetrics.CAUSE_ANIMATION));
+    }
+
+    private void apply(String event, String argument) {
+        if ("created".equals(event)) {
+            inAmbientMode = "ambient".equals(argument);
+            if (inAmbientMode) {
+                scheduleSystemTimeTick();
+            }
+            controller.setInitialState(true, inAmbientMode);
+        } else if ("visible".equals(event)) {
+            controller.onVisibilityChanged(true);
+        } else if ("hidden".equals(event)) {
+            controller.onVisibilityChanged(false);
+        } else if ("ambient".equals(event)) {
+            setAmbientMode(true);
+        } else if ("interactive".equals(event)) {
+            setAmbientMode(false);
+        } else if ("peek".equals(event)) {
+            refreshState.setPeekCardShown(true);
+            refreshState.evaluate();
+        } else if ("unpeek".equals(event)) {
+            refreshState.setPeekCardShown(false);
+            refreshState.evaluate();
+        } else if ("battery".equals(event)) {
+            refreshState.setBatteryPercent(Integer.parseInt(argument));
+            refreshState.evaluate();
+        } else if ("charging".equals(event)) {
+            refreshState.setCharging("on".equals(argument));
+            refreshState.evaluate();
+        } else if ("powersave".equals(event)) {
+            refreshState.setPowerSave("on".equals(argument));
+            refreshState.evaluate();
+        } else if ("data".equals(event)) {
+            controller.onDataChanged();
+        } else if ("colour".equals(event)) {
+            publishedColour = (int) Long.parseLong(argument, 16);
+            controller.onDataChanged();
+        } else if ("timezone".equals(event)) {
+            controller.onTimeZoneChanged();
+        } else if (!"end".equals(event)) {
+            throw new IllegalArgumentException("Unknown event: " + event);
+        }
+    }
+
+    private void setAmbientMode(boolean inAmbientMode) {
+        this.inAmbientMode = inAmbientMode;
+        colourAnimator.setAmbientMode(inAmbientMode);
+        looper.removeCallbacks(systemTimeTick);
+        if (inAmbientMode) {
+            scheduleSystemTimeTick();
+        }
+        controller.onAmbientModeChanged(inAmbientMode);
+    }
+
+    private final RefreshState.Listener refreshListener = new RefreshState.Listener() {
+        @Override
+        public void onShowSecondsChanged(boolean showSeconds) {
+            controller.onCadenceChanged();
+        }
+    };
+
+    private void scheduleSystemTimeTick() {
+        long now = looper.currentTimeMillis();
+        looper.postDelayed(systemTimeTick, minutes.nextUpdateAfter(now) - now);
+    }
+
+    private final Runnable systemTimeTick = new Runnable() {
+        @Override
+        public void run() {
+            controller.onTimeTick();
+            scheduleSystemTimeTick();
+        }
+    };
+
+    private final WatchFaceController.Host host = new WatchFaceController.Host() {
+        @Override
+        public void invalidate() {
+            invalidations++;
+            if (!drawPending) {
+                drawPending = true;
+                looper.postDelayed(draw, colourAnimator.isAnimating() ? FRAME_MILLIS : 0);
+            }
+        }
+    };
+
+    private final Runnable draw = new Runnable() {
+        @Override
+        public void run() {
+            drawPending = false;
+            draws++;
+            drawCostMicros += inAmbientMode ? AMBIENT_DRAW_COST_MICROS : INTERACTIVE_DRAW_COST_MICROS;
+            if (!inAmbientMode) {
+                long now = looper.currentTimeMillis();
+                colourAnimator.animateTo(publishedColour, WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR, now);
+                // reading the frame's colour steps the fade, as painting it does on the watch
+                colourAnimator.getBackgroundColour(now);
+            }
+            controller.onFrameDrawn(colourAnimator.isAnimating());
+        }
+    };
+
+    private final ElementScheduler.Element minutes = new ElementScheduler.Element() {
+        @Override
+        public long nextUpdateAfter(long nowMillis) {
+            return nowMillis - (nowMillis % TickScheduler.MINUTE_MILLIS) + TickScheduler.MINUTE_MILLIS;
+        }
+    };
+
+    private final ElementScheduler.Element seconds = new ElementScheduler.Element() {
+        @Override
+        public long nextUpdateAfter(long nowMillis) {
+            if (!refreshState.shouldShowSeconds()) {
+                return TickScheduler.NO_BOUNDARY;
+            }
+            return nowMillis - (nowMillis % TickScheduler.SECOND_MILLIS) + TickScheduler.SECOND_MILLIS;
+        }
+    };
+
+    private static long parseOffset(String offset) {
+        String[] fields = offset.split(":");
+        return ((Long.parseLong(fields[0]) * 60 + Long.parseLong(fields[1])) * 60 + Long.parseLong(fields[2]))
+                * TickScheduler.SECOND_MILLIS;
+    }
+
+    static class Report {
+        final long durationMillis;
+        final long wakeups;
+        final long invalidations;
+        final long draws;
+        final long drawCostMicros;
+        final long ticks;
+        final long animationFrames;
+
+        Report(long durationMillis, long wakeups, long invalidations, long draws, long drawCostMicros, long ticks,
+               long animationFrames) {
+            this.durationMillis = durationMillis;
+            this.wakeups = wakeups;
+            this.invalidations = invalidations;
+            this.draws = draws;
+            this.drawCostMicros = drawCostMicros;
+            this.ticks = ticks;
+            this.animationFrames = animationFrames;
+        }
+
+        double wakeupsPerHour() {
+            return perHour(wakeups);
+        }
+
+        double invalidationsPerHour() {
+            return perHour(invalidations);
+        }
+
+        double drawCostMillisPerHour() {
+            return perHour(drawCostMicros) / 1000;
+        }
+
+        private double perHour(long count) {
+            return count * (double) HOUR_MILLIS / durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("wakeups/h=%.0f invalidations/h=%.0f draws=%d ticks=%d animationFrames=%d drawCost/h=%.1fms",
+                    wakeupsPerHour(), invalidationsPerHour(), draws, ticks, animationFrames, drawCostMillisPerHour());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventTraceTest {
+
+    private static final int CAPACITY = 4;
+
+    private final EventTrace trace = new EventTrace(CAPACITY);
+    private final long[] times = new long[CAPACITY];
+    private final int[] types = new int[CAPACITY];
+    private final long[] args = new long[CAPACITY];
+
+    @Test
+    public void keepsTheNewestEventsOldestFirstOnceWrapped() {
+        for (int i = 0; i < 6; i++) {
+            trace.record(EventTrace.TICK_SCHEDULED, i);
+        }
+
+        int count = trace.copyTo(times, types, args);
+
+        assertEquals(CAPACITY, count);
+        assertEquals(6, trace.getRecordedCount());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i + 2, args[i]);
+        }
+    }
+
+    @Test
+    public void exportedTraceDecodesIntoTimelineWithSectionDurations() throws IOException {
+        trace.record(EventTrace.VISIBILITY, 1);
+        trace.beginSection(EventTrace.DRAW_BEGIN, 0);
+        trace.endSection(EventTrace.DRAW_END, 0);
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        trace.writeTo(exported);
+
+        StringWriter timeline = new StringWriter();
+        TraceTimeline.print(new ByteArrayInputStream(exported.toByteArray()), new PrintWriter(timeline));
+
+        String[] lines = timeline.toString().split("\n");
+        assertEquals("recorded=3 retained=3", lines[0].trim());
+        assertTrue(lines[1], lines[1].contains("visibility"));
+        assertTrue(lines[2], lines[2].contains("draw.begin"));
+        assertTrue(lines[3], lines[3].contains("draw.end") && lines[3].trim().endsWith("us)"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTruncatedExport() throws IOException {
+        trace.record(EventTrace.CONNECTED, 1);
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        trace.writeTo(exported);
+        byte[] bytes = exported.toByteArray();
+
+        TraceTimeline.print(new ByteArrayInputStream(bytes, 0, bytes.length - 1), new PrintWriter(new StringWriter()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.catinean.simpleandroidwatchface;
+
+class FixedAdvanceMeasurer implements TextMeasurer {
+
+    private final float digitAdvance;
+    private final float separatorAdvance;
+    private final int textHeight;
+    private final float ascent;
+    private final float descent;
+
+    FixedAdvanceMeasurer(float digitAdvance, float separatorAdvance, int textHeight, float ascent, float descent) {
+        this.digitAdvance = digitAdvance;
+        this.separatorAdvance = separatorAdvance;
+        this.textHeight = textHeight;
+        this.ascent = ascent;
+        this.descent = descent;
+    }
+
+    @Override
+    public float measureText(char[] text, int start, int length) {
+        float width = 0;
+        for (int i = start; i < start + length; i++) {
+            width += text[i] == ClockFormat.SEPARATOR ? separatorAdvance : digitAdvance;
+        }
+        return width;
+    }
+
+    @Override
+    public float getMaxDigitAdvance() {
+        return digitAdvance;
+    }
+
+    @Override
+    public int getTextHeight() {
+        return textHeight;
+    }
+
+    @Override
+    public float getAscent() {
+        return ascent;
+    }
+
+    @Override
+    public float getDescent() {
+        return descent;
+    }
+}
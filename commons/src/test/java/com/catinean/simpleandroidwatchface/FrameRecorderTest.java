@@ -0,0 +1,69 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameRecorderTest {
+
+    private static final int WATCH_SIZE = 320;
+    private static final long NOW = 1792331107000L; // 18 October 2026 13:45:07 UTC
+
+    private final WatchClock clock = new WatchClock(TimeZone.getTimeZone("UTC"));
+    private final WatchFaceLayout layout = new WatchFaceLayout();
+    private final TextMeasurer timeMeasurer = new FixedAdvanceMeasurer(26.0f, 12.0f, 33, -37.0f, 10.0f);
+    private final TextMeasurer dateMeasurer = new FixedAdvanceMeasurer(11.0f, 5.0f, 14, -16.0f, 4.0f);
+    private final FrameRecorder recorder = new FrameRecorder(clock, layout, timeMeasurer, dateMeasurer);
+    private final DisplayList frame = new DisplayList(8, 64);
+
+    @Test
+    public void recordsFrameAsGoldenOpList() {
+        record();
+
+        assertEquals(""
+                + "fillRect [0,0 320,320] #FF000000\n"
+                + "text font=0 \"13.45.\" at 70.0,176.5 [69,139 199,187] #FFFFFFFF\n"
+                + "text font=0 \"07\" at 198.0,176.5 [197,139 251,187] #FFFFFFFF\n"
+                + "text font=1 \"18.10.2026\" at 111.0,200.5 [110,184 210,205] #FFFFFFFF\n",
+                frame.toString());
+    }
+
+    @Test
+    public void hiddenSecondsRecordsCentredMinutesOnly() {
+        recorder.setShowSeconds(false);
+
+        record();
+
+        assertEquals(""
+                + "fillRect [0,0 320,320] #FF000000\n"
+                + "text font=0 \"13.45\" at 102.0,176.5 [101,139 219,187] #FFFFFFFF\n"
+                + "text font=1 \"18.10.2026\" at 111.0,200.5 [110,184 210,205] #FFFFFFFF\n",
+                frame.toString());
+        assertEquals(NOW + 53 * TickScheduler.SECOND_MILLIS, recorder.getCadence().nextBoundaryAfter(NOW));
+    }
+
+    @Test
+    public void themedFrameRecordsColoursBackgroundImageAndDateAbove() {
+        recorder.setColours(0xFF102030, 0xFFFFCC00);
+        recorder.setBackgroundImage(true);
+        layout.setVariant(WatchFaceLayout.VARIANT_DATE_ABOVE);
+
+        record();
+
+        assertEquals(""
+                + "fillRect [0,0 320,320] #FF102030\n"
+                + "bitmap id=0 [0,0 320,320] #0\n"
+                + "text font=0 \"13.45.\" at 70.0,176.5 [69,139 199,187] #FFFFCC00\n"
+                + "text font=0 \"07\" at 198.0,176.5 [197,139 251,187] #FFFFCC00\n"
+                + "text font=1 \"18.10.2026\" at 111.0,133.5 [110,117 210,138] #FFFFCC00\n",
+                frame.toString());
+    }
+
+    private void record() {
+        clock.update(NOW);
+        layout.update(WATCH_SIZE, WATCH_SIZE, timeMeasurer, dateMeasurer);
+        recorder.record(frame);
+    }
+}
@@ -0,0 +1,82 @@
+package com.catinean.simpleandroidwatchface;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class SimulatedLooper implements TickScheduler.Clock, TickScheduler.TaskHandler {
+
+    private final List<Task> queue = new ArrayList<Task>();
+
+    private long nowMillis;
+    private long lastWakeupMillis = Long.MIN_VALUE;
+    private long sequence;
+    private long wakeups;
+
+    SimulatedLooper(long startMillis) {
+        this.nowMillis = startMillis;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return nowMillis;
+    }
+
+    @Override
+    public void postDelayed(Runnable runnable, long delayMillis) {
+        queue.add(new Task(nowMillis + Math.max(0, delayMillis), sequence++, runnable));
+    }
+
+    @Override
+    public void removeCallbacks(Runnable runnable) {
+        for (int i = queue.size() - 1; i >= 0; i--) {
+            if (queue.get(i).runnable == runnable) {
+                queue.remove(i);
+            }
+        }
+    }
+
+    void runUntil(long endMillis) {
+        Task next = nextTaskDueBy(endMillis);
+        while (next != null) {
+            queue.remove(next);
+            nowMillis = next.atMillis;
+            if (nowMillis != lastWakeupMillis) {
+                wakeups++;
+                lastWakeupMillis = nowMillis;
+            }
+            next.runnable.run();
+            next = nextTaskDueBy(endMillis);
+        }
+        nowMillis = endMillis;
+    }
+
+    long getWakeups() {
+        return wakeups;
+    }
+
+    private Task nextTaskDueBy(long endMillis) {
+        Task earliest = null;
+        for (Task task : queue) {
+            if (task.atMillis <= endMillis && (earliest == null || task.isBefore(earliest))) {
+                earliest = task;
+            }
+        }
+        return earliest;
+    }
+
+    private static class Task {
+        final long atMillis;
+        final long sequence;
+        final Runnable runnable;
+
+        Task(long atMillis, long sequence, Runnable runnable) {
+            this.atMillis = atMillis;
+            this.sequence = sequence;
+            this.runnable = runnable;
+        }
+
+        boolean isBefore(Task other) {
+            return atMillis < other.atMillis || (atMillis == other.atMillis && sequence < other.sequence);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class ThemeBundleCodecTest {
+
+    private static final ThemeBundle THEME = new ThemeBundle(42, 0xFF102030, 0xFFFFFFFF,
+            ThemeBundle.DEFAULT_TIME_TEXT_SIZE_DP, ThemeBundle.DEFAULT_DATE_TEXT_SIZE_DP,
+            WatchFaceLayout.VARIANT_DATE_ABOVE, new byte[]{1, 2, 3, 4});
+
+    @Test
+    public void decodesWhatItEncodes() {
+        byte[] payload = ThemeBundleCodec.encode(THEME);
+
+        assertEquals(THEME, ThemeBundleCodec.decode(payload));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTruncatedPayload() {
+        byte[] payload = ThemeBundleCodec.encode(THEME);
+
+        ThemeBundleCodec.decode(Arrays.copyOf(payload, payload.length - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFutureSchemaVersion() {
+        byte[] payload = ThemeBundleCodec.encode(THEME);
+        payload[2] = ThemeBundleCodec.SCHEMA_VERSION + 1;
+
+        ThemeBundleCodec.decode(payload);
+    }
+}
@@ -0,0 +1,138 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WatchClockTest {
+
+    private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+    private static final TimeZone LONDON = TimeZone.getTimeZone("Europe/London");
+    private static final TimeZone KATHMANDU = TimeZone.getTimeZone("Asia/Kathmandu");
+    private static final long SECOND = 1000;
+
+    @Test
+    public void derivesTimeAndDateFields() {
+        WatchClock clock = new WatchClock(LONDON);
+
+        clock.update(millisOf(LONDON, 2026, Calendar.OCTOBER, 18, 13, 45, 7));
+
+        assertTime(clock, 13, 45, 7);
+        assertDate(clock, 2026, Calendar.OCTOBER, 18);
+    }
+
+    @Test
+    public void rollsDateOverAtLocalMidnight() {
+        WatchClock clock = new WatchClock(NEW_YORK);
+        long beforeMidnight = millisOf(NEW_YORK, 2026, Calendar.DECEMBER, 31, 23, 59, 59);
+
+        clock.update(beforeMidnight);
+        assertDate(clock, 2026, Calendar.DECEMBER, 31);
+        assertEquals(beforeMidnight + SECOND, clock.getNextMidnightMillis());
+
+        clock.update(beforeMidnight + SECOND);
+        assertTime(clock, 0, 0, 0);
+        assertDate(clock, 2027, Calendar.JANUARY, 1);
+    }
+
+    @Test
+    public void jumpsForwardAcrossSpringDstTransition() {
+        WatchClock clock = new WatchClock(NEW_YORK);
+        long beforeTransition = millisOf(NEW_YORK, 2026, Calendar.MARCH, 8, 1, 59, 59);
+
+        clock.update(beforeTransition);
+        assertTime(clock, 1, 59, 59);
+        assertEquals(beforeTransition + SECOND, clock.getNextTransitionMillis());
+
+        clock.update(beforeTransition + SECOND);
+        assertTime(clock, 3, 0, 0);
+        assertDate(clock, 2026, Calendar.MARCH, 8);
+    }
+
+    @Test
+    public void repeatsHourAcrossAutumnDstTransition() {
+        WatchClock clock = new WatchClock(NEW_YORK);
+        long beforeTransition = millisOf(NEW_YORK, 2026, Calendar.NOVEMBER, 1, 0, 30, 0) + 90 * 60 * SECOND - SECOND;
+
+        clock.update(beforeTransition);
+        assertTime(clock, 1, 59, 59);
+
+        clock.update(beforeTransition + SECOND);
+        assertTime(clock, 1, 0, 0);
+        assertDate(clock, 2026, Calendar.NOVEMBER, 1);
+    }
+
+    @Test
+    public void noTransitionIsScheduledOnAnOrdinaryDay() {
+        WatchClock clock = new WatchClock(NEW_YORK);
+
+        clock.update(millisOf(NEW_YORK, 2026, Calendar.JULY, 14, 9, 0, 0));
+
+        assertEquals(Long.MAX_VALUE, clock.getNextTransitionMillis());
+    }
+
+    @Test
+    public void followsTimeZoneChange() {
+        long now = millisOf(LONDON, 2026, Calendar.OCTOBER, 18, 23, 30, 0);
+        WatchClock clock = new WatchClock(LONDON);
+        clock.update(now);
+        assertDate(clock, 2026, Calendar.OCTOBER, 18);
+
+        clock.setTimeZone(KATHMANDU);
+        clock.update(now);
+
+        assertTime(clock, 4, 15, 0);
+        assertDate(clock, 2026, Calendar.OCTOBER, 19);
+    }
+
+    @Test
+    public void recomputesWhenClockIsSetBackwards() {
+        WatchClock clock = new WatchClock(LONDON);
+        clock.update(millisOf(LONDON, 2026, Calendar.OCTOBER, 18, 0, 0, 5));
+
+        clock.update(millisOf(LONDON, 2026, Calendar.OCTOBER, 17, 23, 59, 59));
+
+        assertTime(clock, 23, 59, 59);
+        assertDate(clock, 2026, Calendar.OCTOBER, 17);
+    }
+
+    @Test
+    public void ticksWithoutRecomputingWithinTheSameDay() {
+        WatchClock clock = new WatchClock(LONDON);
+        long start = millisOf(LONDON, 2026, Calendar.OCTOBER, 18, 10, 0, 0);
+        clock.update(start);
+        long nextMidnight = clock.getNextMidnightMillis();
+
+        for (long now = start; now < start + 3600 * SECOND; now += SECOND) {
+            clock.update(now);
+        }
+
+        assertTime(clock, 10, 59, 59);
+        assertEquals(nextMidnight, clock.getNextMidnightMillis());
+        assertTrue(clock.getNextMidnightMillis() > start);
+    }
+
+    private static long millisOf(TimeZone timeZone, int year, int month, int day, int hour, int minute, int second) {
+        Calendar calendar = new GregorianCalendar(timeZone);
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute, second);
+        return calendar.getTimeInMillis();
+    }
+
+    private static void assertTime(WatchClock clock, int hour, int minute, int second) {
+        assertEquals(hour, clock.hour);
+        assertEquals(minute, clock.minute);
+        assertEquals(second, clock.second);
+    }
+
+    private static void assertDate(WatchClock clock, int year, int month, int monthDay) {
+        assertEquals(year, clock.year);
+        assertEquals(month, clock.month);
+        assertEquals(monthDay, clock.monthDay);
+    }
+}
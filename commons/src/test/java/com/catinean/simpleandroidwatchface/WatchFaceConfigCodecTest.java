@@ -0,0 +1,25 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class WatchFaceConfigCodecTest {
+
+    private static final WatchFaceConfig CONFIG = new WatchFaceConfig(0xFF102030, 0xFFFFFFFF, 7);
+
+    @Test
+    public void decodesWhatItEncodes() {
+        byte[] payload = WatchFaceConfigCodec.encode(CONFIG);
+
+        assertEquals(CONFIG, WatchFaceConfigCodec.decode(payload));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFutureSchemaVersion() {
+        byte[] payload = WatchFaceConfigCodec.encode(CONFIG);
+        payload[0] = WatchFaceConfigCodec.SCHEMA_VERSION + 1;
+
+        WatchFaceConfigCodec.decode(payload);
+    }
+}
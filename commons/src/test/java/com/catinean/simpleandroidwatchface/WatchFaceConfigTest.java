@@ -0,0 +1,29 @@
+package com.catinean.simpleandroidwatchface;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WatchFaceConfigTest {
+
+    private static final WatchFaceConfig APPLIED = new WatchFaceConfig(0xFF000000, 0xFFFFFFFF, 42);
+
+    @Test
+    public void newerRevisionSupersedes() {
+        assertTrue(APPLIED.withRevision(43).supersedes(APPLIED));
+    }
+
+    @Test
+    public void resetPhoneCounterStillDeliversNewColours() {
+        WatchFaceConfig afterReinstall = new WatchFaceConfig(0xFF336699, 0xFFFFFFFF, 1);
+
+        assertTrue(afterReinstall.supersedes(APPLIED));
+    }
+
+    @Test
+    public void olderRevisionWithSameColoursIsStale() {
+        assertFalse(APPLIED.withRevision(1).supersedes(APPLIED));
+        assertFalse(APPLIED.supersedes(APPLIED));
+    }
+}
@@ -11,6 +11,7 @@ public class ColourChooserDialog extends DialogFragment {
 
     private static final String ARG_TITLE = "ARG_TITLE";
     private Listener colourSelectedListener;
+    private int selectedIndex = -1;
 
     public static ColourChooserDialog newInstance(String dialogTitle) {
         Bundle arguments = new Bundle();
@@ -31,16 +32,44 @@ public class ColourChooserDialog extends DialogFragment {
         String title = getArguments().getString(ARG_TITLE);
         AlertDialog.Builder builder = new AlertDialog.Builder(getActivity());
         builder.setTitle(title)
-                .setItems(R.array.colors_array, new DialogInterface.OnClickListener() {
+                .setSingleChoiceItems(R.array.colors_array, selectedIndex, new DialogInterface.OnClickListener() {
                     public void onClick(DialogInterface dialog, int which) {
-                        String[] colours = getResources().getStringArray(R.array.colors_array);
-                        colourSelectedListener.onColourSelected(colours[which], getTag());
+                        selectedIndex = which;
+                        colourSelectedListener.onColourPreviewed(colourAt(which), getTag());
+                    }
+                })
+                .setPositiveButton(android.R.string.ok, new DialogInterface.OnClickListener() {
+                    public void onClick(DialogInterface dialog, int which) {
+                        if (selectedIndex >= 0) {
+                            colourSelectedListener.onColourSelected(colourAt(selectedIndex), getTag());
+                        } else {
+                            colourSelectedListener.onColourPreviewCancelled(getTag());
+                        }
+                    }
+                })
+                .setNegativeButton(android.R.string.cancel, new DialogInterface.OnClickListener() {
+                    public void onClick(DialogInterface dialog, int which) {
+                        colourSelectedListener.onColourPreviewCancelled(getTag());
                     }
                 });
         return builder.create();
     }
 
+    @Override
+    public void onCancel(DialogInterface dialog) {
+        super.onCancel(dialog);
+        colourSelectedListener.onColourPreviewCancelled(getTag());
+    }
+
+    private String colourAt(int index) {
+        return getResources().getStringArray(R.array.colors_array)[index];
+    }
+
     interface Listener {
+        void onColourPreviewed(String colour, String tag);
+
+        void onColourPreviewCancelled(String tag);
+
         void onColourSelected(String colour, String tag);
     }
 }
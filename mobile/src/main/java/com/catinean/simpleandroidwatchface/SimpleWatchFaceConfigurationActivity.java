@@ -1,19 +1,24 @@
 package com.catinean.simpleandroidwatchface;
 
+import android.app.AlertDialog;
+import android.content.DialogInterface;
 import android.graphics.Color;
 import android.os.Bundle;
 import android.support.v7.app.ActionBarActivity;
 import android.support.v7.widget.Toolbar;
 import android.util.Log;
+import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
+import android.widget.EditText;
+import android.widget.Toast;
 
 import com.google.android.gms.common.ConnectionResult;
 import com.google.android.gms.common.api.GoogleApiClient;
-import com.google.android.gms.wearable.PutDataMapRequest;
-import com.google.android.gms.wearable.PutDataRequest;
 import com.google.android.gms.wearable.Wearable;
 
+import java.util.List;
+
 public class SimpleWatchFaceConfigurationActivity extends ActionBarActivity implements ColourChooserDialog.Listener,
         GoogleApiClient.ConnectionCallbacks,
         GoogleApiClient.OnConnectionFailedListener {
@@ -26,6 +31,8 @@ public class SimpleWatchFaceConfigurationActivity extends ActionBarActivity impl
     private View backgroundColourImagePreview;
     private View dateAndTimeColourImagePreview;
     private WatchConfigurationPreferences watchConfigurationPreferences;
+    private WatchConfigPublisher watchConfigPublisher;
+    private WatchPreviewStreamer watchPreviewStreamer;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -62,9 +69,10 @@ public class SimpleWatchFaceConfigurationActivity extends ActionBarActivity impl
         dateAndTimeColourImagePreview = findViewById(R.id.configuration_date_and_time_colour_preview);
 
         watchConfigurationPreferences = WatchConfigurationPreferences.newInstance(this);
+        watchConfigPublisher = WatchConfigPublisher.newInstance(googleApiClient, watchConfigurationPreferences);
+        watchPreviewStreamer = WatchPreviewStreamer.newInstance(googleApiClient);
 
-        backgroundColourImagePreview.setBackgroundColor(watchConfigurationPreferences.getBackgroundColour());
-        dateAndTimeColourImagePreview.setBackgroundColor(watchConfigurationPreferences.getDateAndTimeColour());
+        showColourPreviews();
     }
 
     @Override
@@ -73,37 +81,158 @@ public class SimpleWatchFaceConfigurationActivity extends ActionBarActivity impl
         googleApiClient.connect();
     }
 
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_configuration, menu);
+        return true;
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
             finish();
             return true;
         }
+        if (item.getItemId() == R.id.action_save_profile) {
+            showSaveProfileDialog();
+            return true;
+        }
+        if (item.getItemId() == R.id.action_switch_profile) {
+            showSwitchProfileDialog();
+            return true;
+        }
+        if (item.getItemId() == R.id.action_delete_profile) {
+            showDeleteProfileDialog();
+            return true;
+        }
+        if (item.getItemId() == R.id.action_send_theme) {
+            showSendThemeDialog();
+            return true;
+        }
 
         return super.onOptionsItemSelected(item);
     }
 
-    @Override
-    public void onColourSelected(String colour, String tag) {
-        PutDataMapRequest putDataMapReq = PutDataMapRequest.create(WatchfaceSyncCommons.PATH);
+    private void showSaveProfileDialog() {
+        final EditText nameInput = new EditText(this);
+        nameInput.setHint(R.string.profile_name_hint);
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.save_profile)
+                .setView(nameInput)
+                .setPositiveButton(android.R.string.ok, new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        String name = nameInput.getText().toString().trim();
+                        if (name.length() > 0) {
+                            watchConfigurationPreferences.saveProfile(name);
+                            watchConfigurationPreferences.commit();
+                        }
+                    }
+                })
+                .setNegativeButton(android.R.string.cancel, null)
+                .show();
+    }
 
+    private void showSwitchProfileDialog() {
+        final List<String> names = watchConfigurationPreferences.getProfileNames();
+        if (names.isEmpty()) {
+            Toast.makeText(this, R.string.no_profiles, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.switch_profile)
+                .setItems(names.toArray(new String[names.size()]), new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        if (watchConfigPublisher.switchToProfile(names.get(which))) {
+                            showColourPreviews();
+                        }
+                    }
+                })
+                .show();
+    }
+
+    private void showDeleteProfileDialog() {
+        final List<String> names = watchConfigurationPreferences.getProfileNames();
+        if (names.isEmpty()) {
+            Toast.makeText(this, R.string.no_profiles, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.delete_profile)
+                .setItems(names.toArray(new String[names.size()]), new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        watchConfigurationPreferences.deleteProfile(names.get(which));
+                        watchConfigurationPreferences.commit();
+                    }
+                })
+                .show();
+    }
+
+    private void showSendThemeDialog() {
+        String[] layouts = {getString(R.string.theme_date_below), getString(R.string.theme_date_above)};
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.send_theme)
+                .setItems(layouts, new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        int layoutVariant = which == 0
+                                ? WatchFaceLayout.VARIANT_DATE_BELOW
+                                : WatchFaceLayout.VARIANT_DATE_ABOVE;
+                        if (!watchConfigPublisher.publishTheme(layoutVariant)) {
+                            Toast.makeText(SimpleWatchFaceConfigurationActivity.this,
+                                    R.string.watch_not_connected, Toast.LENGTH_SHORT).show();
+                        }
+                    }
+                })
+                .show();
+    }
+
+    private void showColourPreviews() {
+        backgroundColourImagePreview.setBackgroundColor(watchConfigurationPreferences.getBackgroundColour());
+        dateAndTimeColourImagePreview.setBackgroundColor(watchConfigurationPreferences.getDateAndTimeColour());
+    }
+
+    @Override
+    public void onColourPreviewed(String colour, String tag) {
+        int parsedColour = Color.parseColor(colour);
+        WatchFaceConfig config = watchConfigPublisher.getConfig();
         if (TAG_BACKGROUND_COLOUR_CHOOSER.equals(tag)) {
-            backgroundColourImagePreview.setBackgroundColor(Color.parseColor(colour));
-            watchConfigurationPreferences.setBackgroundColour(Color.parseColor(colour));
-            putDataMapReq.getDataMap().putString(WatchfaceSyncCommons.KEY_BACKGROUND_COLOUR, colour);
+            watchPreviewStreamer.preview(config.withBackgroundColour(parsedColour));
         } else {
-            dateAndTimeColourImagePreview.setBackgroundColor(Color.parseColor(colour));
-            watchConfigurationPreferences.setDateAndTimeColour(Color.parseColor(colour));
-            putDataMapReq.getDataMap().putString(WatchfaceSyncCommons.KEY_DATE_TIME_COLOUR, colour);
+            watchPreviewStreamer.preview(config.withDateAndTimeColour(parsedColour));
         }
+    }
 
-        PutDataRequest putDataReq = putDataMapReq.asPutDataRequest();
-        Wearable.DataApi.putDataItem(googleApiClient, putDataReq);
+    @Override
+    public void onColourPreviewCancelled(String tag) {
+        watchPreviewStreamer.endPreview();
+    }
+
+    @Override
+    public void onColourSelected(String colour, String tag) {
+        int parsedColour = Color.parseColor(colour);
+        WatchFaceConfig previous = watchConfigPublisher.getConfig();
+        if (TAG_BACKGROUND_COLOUR_CHOOSER.equals(tag)) {
+            backgroundColourImagePreview.setBackgroundColor(parsedColour);
+            watchConfigPublisher.updateBackgroundColour(parsedColour);
+        } else {
+            dateAndTimeColourImagePreview.setBackgroundColor(parsedColour);
+            watchConfigPublisher.updateDateAndTimeColour(parsedColour);
+        }
+        if (watchConfigPublisher.getConfig().hasSameColoursAs(previous)) {
+            watchPreviewStreamer.endPreview();
+        } else {
+            watchPreviewStreamer.confirmPreview();
+        }
     }
 
     @Override
     public void onConnected(Bundle bundle) {
         Log.d(TAG, "onConnected");
+        watchConfigPublisher.flush();
+        watchPreviewStreamer.onConnected();
     }
 
     @Override
@@ -118,6 +247,8 @@ public class SimpleWatchFaceConfigurationActivity extends ActionBarActivity impl
 
     @Override
     protected void onStop() {
+        watchPreviewStreamer.endPreview();
+        watchConfigPublisher.flush();
         if (googleApiClient != null && googleApiClient.isConnected()) {
             googleApiClient.disconnect();
         }
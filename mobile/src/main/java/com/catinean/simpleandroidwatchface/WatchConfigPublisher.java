@@ -0,0 +1,118 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.android.gms.common.api.GoogleApiClient;
+import com.google.android.gms.wearable.Asset;
+import com.google.android.gms.wearable.PutDataMapRequest;
+import com.google.android.gms.wearable.Wearable;
+
+import java.util.zip.CRC32;
+
+public class WatchConfigPublisher {
+
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final GoogleApiClient googleApiClient;
+    private final WatchConfigurationPreferences preferences;
+    private final Handler handler;
+
+    private boolean publishPending;
+
+    public static WatchConfigPublisher newInstance(GoogleApiClient googleApiClient, WatchConfigurationPreferences preferences) {
+        return new WatchConfigPublisher(googleApiClient, preferences, new Handler(Looper.getMainLooper()));
+    }
+
+    WatchConfigPublisher(GoogleApiClient googleApiClient, WatchConfigurationPreferences preferences, Handler handler) {
+        this.googleApiClient = googleApiClient;
+        this.preferences = preferences;
+        this.handler = handler;
+    }
+
+    public WatchFaceConfig getConfig() {
+        return preferences.getConfig();
+    }
+
+    public void updateBackgroundColour(int colour) {
+        WatchFaceConfig previous = preferences.getConfig();
+        preferences.setBackgroundColour(colour);
+        schedulePublishIfChanged(previous);
+    }
+
+    public void updateDateAndTimeColour(int colour) {
+        WatchFaceConfig previous = preferences.getConfig();
+        preferences.setDateAndTimeColour(colour);
+        schedulePublishIfChanged(previous);
+    }
+
+    public boolean switchToProfile(String name) {
+        WatchFaceConfig previous = preferences.getConfig();
+        if (!preferences.applyProfile(name)) {
+            return false;
+        }
+        if (!preferences.getConfig().hasSameColoursAs(previous)) {
+            publishPending = true;
+        }
+        flush();
+        return true;
+    }
+
+    public boolean publishTheme(int layoutVariant) {
+        if (!googleApiClient.isConnected()) {
+            return false;
+        }
+
+        WatchFaceConfig config = preferences.getConfig();
+        ThemeBundle content = new ThemeBundle(0, config.getBackgroundColour(), config.getDateAndTimeColour(),
+                ThemeBundle.DEFAULT_TIME_TEXT_SIZE_DP, ThemeBundle.DEFAULT_DATE_TEXT_SIZE_DP, layoutVariant, null);
+        CRC32 crc = new CRC32();
+        crc.update(ThemeBundleCodec.encode(content));
+        ThemeBundle bundle = new ThemeBundle(crc.getValue(), content.getBackgroundColour(),
+                content.getDateAndTimeColour(), content.getTimeTextSizeDp(), content.getDateTextSizeDp(),
+                layoutVariant, null);
+
+        PutDataMapRequest putDataMapReq = PutDataMapRequest.create(WatchfaceSyncCommons.THEME_PATH);
+        putDataMapReq.getDataMap().putLong(WatchfaceSyncCommons.KEY_THEME_ID, bundle.getId());
+        putDataMapReq.getDataMap().putAsset(WatchfaceSyncCommons.KEY_THEME,
+                Asset.createFromBytes(ThemeBundleCodec.encode(bundle)));
+        Wearable.DataApi.putDataItem(googleApiClient, putDataMapReq.asPutDataRequest());
+        return true;
+    }
+
+    private void schedulePublishIfChanged(WatchFaceConfig previous) {
+        if (preferences.getConfig().hasSameColoursAs(previous)) {
+            return;
+        }
+        publishPending = true;
+        handler.removeCallbacks(publishRunnable);
+        handler.postDelayed(publishRunnable, DEBOUNCE_MILLIS);
+    }
+
+    public void flush() {
+        handler.removeCallbacks(publishRunnable);
+        publishIfPending();
+        preferences.commit();
+    }
+
+    private final Runnable publishRunnable = new Runnable() {
+        @Override
+        public void run() {
+            publishIfPending();
+            preferences.commit();
+        }
+    };
+
+    private void publishIfPending() {
+        if (!publishPending || !googleApiClient.isConnected()) {
+            return;
+        }
+
+        preferences.nextRevision();
+        WatchFaceConfig config = preferences.getConfig();
+        PutDataMapRequest putDataMapReq = PutDataMapRequest.create(WatchfaceSyncCommons.PATH);
+        putDataMapReq.getDataMap().putByteArray(WatchfaceSyncCommons.KEY_CONFIG, WatchFaceConfigCodec.encode(config));
+        Wearable.DataApi.putDataItem(googleApiClient, putDataMapReq.asPutDataRequest());
+        publishPending = false;
+    }
+}
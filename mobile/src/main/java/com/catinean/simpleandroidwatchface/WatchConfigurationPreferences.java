@@ -2,17 +2,32 @@ package com.catinean.simpleandroidwatchface;
 
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.graphics.Color;
+import android.util.Base64;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 public class WatchConfigurationPreferences {
 
+    private static final String TAG = "WatchConfigurationPreferences";
     private static final String NAME = "WatchConfigurationPreferences";
     private static final String KEY_BACKGROUND_COLOUR = NAME + ".KEY_BACKGROUND_COLOUR";
     private static final String KEY_DATE_TIME_COLOUR = NAME + ".KEY_DATE_TIME_COLOUR";
-    private static final int DEFAULT_BACKGROUND_COLOUR = Color.parseColor("black");
-    private static final int DEFAULT_DATE_TIME_COLOUR = Color.parseColor("white");
+    private static final String KEY_REVISION = NAME + ".KEY_REVISION";
+    private static final String KEY_CONFIG = NAME + ".KEY_CONFIG";
+    private static final String KEY_PROFILE_PREFIX = NAME + ".PROFILE.";
 
     private final SharedPreferences preferences;
+    private final Map<String, WatchFaceConfig> profiles = new TreeMap<String, WatchFaceConfig>();
+    private final Set<String> dirtyProfiles = new HashSet<String>();
+
+    private WatchFaceConfig config;
+    private boolean configDirty;
 
     public static WatchConfigurationPreferences newInstance(Context context) {
         SharedPreferences preferences = context.getSharedPreferences(NAME, Context.MODE_PRIVATE);
@@ -21,21 +36,123 @@ public class WatchConfigurationPreferences {
 
     WatchConfigurationPreferences(SharedPreferences preferences) {
         this.preferences = preferences;
+        load();
+    }
+
+    private void load() {
+        WatchFaceConfig stored = decode(preferences.getString(KEY_CONFIG, null));
+        if (stored == null) {
+            stored = new WatchFaceConfig(
+                    preferences.getInt(KEY_BACKGROUND_COLOUR, WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR),
+                    preferences.getInt(KEY_DATE_TIME_COLOUR, WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR),
+                    preferences.getLong(KEY_REVISION, 0));
+        }
+        config = stored;
+
+        for (Map.Entry<String, ?> entry : preferences.getAll().entrySet()) {
+            if (entry.getKey().startsWith(KEY_PROFILE_PREFIX) && entry.getValue() instanceof String) {
+                WatchFaceConfig profile = decode((String) entry.getValue());
+                if (profile != null) {
+                    profiles.put(entry.getKey().substring(KEY_PROFILE_PREFIX.length()), profile);
+                }
+            }
+        }
+    }
+
+    public WatchFaceConfig getConfig() {
+        return config;
     }
 
     public int getBackgroundColour() {
-        return preferences.getInt(KEY_BACKGROUND_COLOUR, DEFAULT_BACKGROUND_COLOUR);
+        return config.getBackgroundColour();
     }
 
     public int getDateAndTimeColour() {
-        return preferences.getInt(KEY_DATE_TIME_COLOUR, DEFAULT_DATE_TIME_COLOUR);
+        return config.getDateAndTimeColour();
+    }
+
+    public void setBackgroundColour(int colour) {
+        updateConfig(config.withBackgroundColour(colour));
+    }
+
+    public void setDateAndTimeColour(int colour) {
+        updateConfig(config.withDateAndTimeColour(colour));
+    }
+
+    public long nextRevision() {
+        updateConfig(config.withRevision(config.getRevision() + 1));
+        return config.getRevision();
+    }
+
+    private void updateConfig(WatchFaceConfig newConfig) {
+        if (!newConfig.equals(config)) {
+            config = newConfig;
+            configDirty = true;
+        }
+    }
+
+    public List<String> getProfileNames() {
+        return new ArrayList<String>(profiles.keySet());
+    }
+
+    public void saveProfile(String name) {
+        profiles.put(name, config.withRevision(WatchFaceConfig.NO_REVISION));
+        dirtyProfiles.add(name);
+    }
+
+    public void deleteProfile(String name) {
+        if (profiles.remove(name) != null) {
+            dirtyProfiles.add(name);
+        }
+    }
+
+    public boolean applyProfile(String name) {
+        WatchFaceConfig profile = profiles.get(name);
+        if (profile == null) {
+            return false;
+        }
+        updateConfig(config.withBackgroundColour(profile.getBackgroundColour())
+                .withDateAndTimeColour(profile.getDateAndTimeColour()));
+        return true;
+    }
+
+    public void commit() {
+        if (!configDirty && dirtyProfiles.isEmpty()) {
+            return;
+        }
+        SharedPreferences.Editor editor = preferences.edit();
+        if (configDirty) {
+            editor.putString(KEY_CONFIG, encode(config))
+                    .remove(KEY_BACKGROUND_COLOUR)
+                    .remove(KEY_DATE_TIME_COLOUR)
+                    .remove(KEY_REVISION);
+        }
+        for (String name : dirtyProfiles) {
+            WatchFaceConfig profile = profiles.get(name);
+            if (profile == null) {
+                editor.remove(KEY_PROFILE_PREFIX + name);
+            } else {
+                editor.putString(KEY_PROFILE_PREFIX + name, encode(profile));
+            }
+        }
+        editor.apply();
+        configDirty = false;
+        dirtyProfiles.clear();
     }
 
-    public void setBackgroundColour(int color) {
-        preferences.edit().putInt(KEY_BACKGROUND_COLOUR, color).apply();
+    private static String encode(WatchFaceConfig config) {
+        return Base64.encodeToString(WatchFaceConfigCodec.encode(config), Base64.NO_WRAP);
     }
 
-    public void setDateAndTimeColour(int color) {
-        preferences.edit().putInt(KEY_DATE_TIME_COLOUR, color).apply();
+    private static WatchFaceConfig decode(String blob) {
+        if (blob == null) {
+            return null;
+        }
+        try {
+            return WatchFaceConfigCodec.decode(Base64.decode(blob, Base64.NO_WRAP));
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "ignoring invalid stored config", e);
+            return null;
+        }
     }
 }
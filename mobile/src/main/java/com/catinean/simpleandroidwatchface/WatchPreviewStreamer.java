@@ -0,0 +1,105 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.google.android.gms.common.api.GoogleApiClient;
+import com.google.android.gms.common.api.ResultCallback;
+import com.google.android.gms.wearable.Node;
+import com.google.android.gms.wearable.NodeApi;
+import com.google.android.gms.wearable.Wearable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WatchPreviewStreamer {
+
+    private static final long MIN_INTERVAL_MILLIS = 250;
+
+    private final GoogleApiClient googleApiClient;
+    private final Handler handler;
+    private final List<String> nodeIds = new ArrayList<String>();
+
+    private WatchFaceConfig pendingPreview;
+    private boolean previewing;
+    private boolean sendScheduled;
+    private long lastSentAtMillis = -MIN_INTERVAL_MILLIS;
+
+    public static WatchPreviewStreamer newInstance(GoogleApiClient googleApiClient) {
+        return new WatchPreviewStreamer(googleApiClient, new Handler(Looper.getMainLooper()));
+    }
+
+    WatchPreviewStreamer(GoogleApiClient googleApiClient, Handler handler) {
+        this.googleApiClient = googleApiClient;
+        this.handler = handler;
+    }
+
+    public void onConnected() {
+        Wearable.NodeApi.getConnectedNodes(googleApiClient).setResultCallback(
+                new ResultCallback<NodeApi.GetConnectedNodesResult>() {
+                    @Override
+                    public void onResult(NodeApi.GetConnectedNodesResult result) {
+                        nodeIds.clear();
+                        for (Node node : result.getNodes()) {
+                            nodeIds.add(node.getId());
+                        }
+                        if (pendingPreview != null) {
+                            scheduleSend();
+                        }
+                    }
+                });
+    }
+
+    public void preview(WatchFaceConfig config) {
+        pendingPreview = config;
+        previewing = true;
+        scheduleSend();
+    }
+
+    public void endPreview() {
+        boolean wasPreviewing = previewing;
+        confirmPreview();
+        if (wasPreviewing) {
+            sendToNodes(WatchfaceSyncCommons.PREVIEW_END_PATH, null);
+        }
+    }
+
+    public void confirmPreview() {
+        handler.removeCallbacks(sendRunnable);
+        sendScheduled = false;
+        pendingPreview = null;
+        previewing = false;
+    }
+
+    private void scheduleSend() {
+        if (sendScheduled) {
+            return;
+        }
+        sendScheduled = true;
+        long delay = Math.max(0, lastSentAtMillis + MIN_INTERVAL_MILLIS - SystemClock.uptimeMillis());
+        handler.postDelayed(sendRunnable, delay);
+    }
+
+    private final Runnable sendRunnable = new Runnable() {
+        @Override
+        public void run() {
+            sendScheduled = false;
+            if (pendingPreview == null || nodeIds.isEmpty()) {
+                return;
+            }
+            sendToNodes(WatchfaceSyncCommons.PREVIEW_PATH, WatchFaceConfigCodec.encode(pendingPreview));
+            pendingPreview = null;
+            lastSentAtMillis = SystemClock.uptimeMillis();
+        }
+    };
+
+    private void sendToNodes(String path, byte[] payload) {
+        if (!googleApiClient.isConnected()) {
+            return;
+        }
+        for (String nodeId : nodeIds) {
+            Wearable.MessageApi.sendMessage(googleApiClient, nodeId, path, payload);
+        }
+    }
+}
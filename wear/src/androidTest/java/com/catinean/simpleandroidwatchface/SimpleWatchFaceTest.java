@@ -0,0 +1,73 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Debug;
+import android.test.AndroidTestCase;
+
+public class SimpleWatchFaceTest extends AndroidTestCase {
+
+    private static final int WATCH_SIZE = 320;
+    private static final int FRAMES = 100;
+
+    private SharedResources resources;
+    private SimpleWatchFace watchFace;
+    private Canvas canvas;
+    private Rect bounds;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        resources = SharedResources.acquire(getContext());
+        watchFace = SimpleWatchFace.newInstance(resources);
+        canvas = new Canvas(Bitmap.createBitmap(WATCH_SIZE, WATCH_SIZE, Bitmap.Config.ARGB_8888));
+        bounds = new Rect(0, 0, WATCH_SIZE, WATCH_SIZE);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        watchFace.release();
+        resources.release();
+        super.tearDown();
+    }
+
+    public void testDrawDoesNotAllocate() {
+        watchFace.draw(canvas, bounds);
+
+        assertEquals(0, countAllocationsWhileDrawing());
+    }
+
+    public void testDrawWithoutSecondsDoesNotAllocate() {
+        watchFace.setShowSeconds(false);
+        watchFace.draw(canvas, bounds);
+
+        assertEquals(0, countAllocationsWhileDrawing());
+    }
+
+    public void testCompositedDrawDoesNotAllocate() {
+        watchFace.setCompositingEnabled(true);
+        watchFace.draw(canvas, bounds);
+
+        assertEquals(0, countAllocationsWhileDrawing());
+    }
+
+    public void testEnginesShareResourcesWhileAnyHoldsThem() {
+        SharedResources second = SharedResources.acquire(getContext());
+        assertSame(resources, second);
+        second.release();
+
+        assertSame(resources, SharedResources.acquire(getContext()));
+        resources.release();
+    }
+
+    private int countAllocationsWhileDrawing() {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        for (int i = 0; i < FRAMES; i++) {
+            watchFace.draw(canvas, bounds);
+        }
+        Debug.stopAllocCounting();
+        return Debug.getThreadAllocCount();
+    }
+}
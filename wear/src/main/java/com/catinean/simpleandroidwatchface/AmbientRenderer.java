@@ -0,0 +1,154 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import java.util.TimeZone;
+
+public class AmbientRenderer {
+
+    private static final long MINUTE_MILLIS = TickScheduler.MINUTE_MILLIS;
+    private static final long NO_MINUTE = Long.MIN_VALUE;
+    private static final int[] BURN_IN_OFFSETS_X = {0, 3, 3, 0, -3, -3, -3, 0, 3};
+    private static final int[] BURN_IN_OFFSETS_Y = {0, 0, 3, 3, 3, 0, -3, -3, -3};
+
+    private final Paint timePaint;
+    private final Paint datePaint;
+    private final Paint blitPaint;
+    private final WatchClock clock;
+    private final GlyphMetrics timeMetrics = new GlyphMetrics();
+    private final GlyphMetrics dateMetrics = new GlyphMetrics();
+    private final WatchFaceLayout layout = new WatchFaceLayout();
+    private final char[] timeText = new char[ClockFormat.TIME_LENGTH_WITHOUT_SECONDS];
+    private final char[] dateText = new char[ClockFormat.DATE_MAX_LENGTH];
+    private final Canvas frameCanvas = new Canvas();
+
+    private Bitmap currentFrame;
+    private Bitmap nextFrame;
+    private long currentMinute = NO_MINUTE;
+    private long nextMinute = NO_MINUTE;
+    private boolean burnInProtection;
+
+    public static AmbientRenderer newInstance(SharedResources resources) {
+        Paint timePaint = new Paint();
+        timePaint.setColor(Color.WHITE);
+        timePaint.setTextSize(resources.getTimeTextSize());
+
+        Paint datePaint = new Paint();
+        datePaint.setColor(Color.WHITE);
+        datePaint.setTextSize(resources.getDateTextSize());
+
+        Paint blitPaint = new Paint();
+        blitPaint.setColor(Color.WHITE);
+        blitPaint.setFilterBitmap(false);
+
+        return new AmbientRenderer(timePaint, datePaint, blitPaint, new WatchClock(TimeZone.getDefault()));
+    }
+
+    AmbientRenderer(Paint timePaint, Paint datePaint, Paint blitPaint, WatchClock clock) {
+        this.timePaint = timePaint;
+        this.datePaint = datePaint;
+        this.blitPaint = blitPaint;
+        this.clock = clock;
+        setLowBitAmbient(false);
+    }
+
+    public void setLowBitAmbient(boolean lowBitAmbient) {
+        boolean antiAlias = DisplayRules.shouldAntiAlias(true, lowBitAmbient);
+        timePaint.setAntiAlias(antiAlias);
+        datePaint.setAntiAlias(antiAlias);
+        invalidateFrames();
+    }
+
+    public void setBurnInProtection(boolean burnInProtection) {
+        this.burnInProtection = burnInProtection;
+    }
+
+    public void setTimeZone(TimeZone timeZone) {
+        clock.setTimeZone(timeZone);
+        invalidateFrames();
+    }
+
+    public void updateLayout(int width, int height) {
+        if (!timeMetrics.isValidFor(timePaint)) {
+            timeMetrics.measure(timePaint);
+        }
+        if (!dateMetrics.isValidFor(datePaint)) {
+            dateMetrics.measure(datePaint);
+        }
+        layout.update(width, height, timeMetrics, dateMetrics);
+
+        if (currentFrame == null || currentFrame.getWidth() != width || currentFrame.getHeight() != height) {
+            release();
+            currentFrame = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+            nextFrame = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+        }
+        invalidateFrames();
+    }
+
+    public void draw(Canvas canvas, int width, int height, long nowMillis) {
+        if (currentFrame == null || !layout.isLaidOutFor(width, height)
+                || !timeMetrics.isValidFor(timePaint) || !dateMetrics.isValidFor(datePaint)) {
+            updateLayout(width, height);
+        }
+
+        long minute = nowMillis / MINUTE_MILLIS;
+        if (nextMinute == minute) {
+            Bitmap previous = currentFrame;
+            currentFrame = nextFrame;
+            currentMinute = nextMinute;
+            nextFrame = previous;
+            nextMinute = NO_MINUTE;
+        }
+        if (currentMinute != minute) {
+            renderFrame(currentFrame, minute);
+            currentMinute = minute;
+        }
+
+        canvas.drawColor(Color.BLACK);
+        int shift = burnInProtection ? (int) (minute % BURN_IN_OFFSETS_X.length) : 0;
+        canvas.drawBitmap(currentFrame, BURN_IN_OFFSETS_X[shift], BURN_IN_OFFSETS_Y[shift], blitPaint);
+    }
+
+    public void prepareNextFrame(long nowMillis) {
+        long minute = nowMillis / MINUTE_MILLIS + 1;
+        if (nextFrame == null || nextMinute == minute) {
+            return;
+        }
+        renderFrame(nextFrame, minute);
+        nextMinute = minute;
+    }
+
+    private void renderFrame(Bitmap frame, long minute) {
+        clock.update(minute * MINUTE_MILLIS);
+        frame.eraseColor(Color.TRANSPARENT);
+        frameCanvas.setBitmap(frame);
+
+        int timeLength = ClockFormat.writeTime(timeText, clock.hour, clock.minute, 0, false);
+        float timeX = layout.centredX(timeMetrics, timeText, timeLength);
+        frameCanvas.drawText(timeText, 0, timeLength, timeX, layout.getTimeBaseline(), timePaint);
+
+        int dateLength = ClockFormat.writeDate(dateText, clock.monthDay, clock.month + 1, clock.year);
+        float dateX = layout.centredX(dateMetrics, dateText, dateLength);
+        frameCanvas.drawText(dateText, 0, dateLength, dateX, layout.getDateBaseline(), datePaint);
+
+        frameCanvas.setBitmap(null);
+    }
+
+    private void invalidateFrames() {
+        currentMinute = NO_MINUTE;
+        nextMinute = NO_MINUTE;
+    }
+
+    public void release() {
+        if (currentFrame != null) {
+            currentFrame.recycle();
+            nextFrame.recycle();
+            currentFrame = null;
+            nextFrame = null;
+        }
+        invalidateFrames();
+    }
+}
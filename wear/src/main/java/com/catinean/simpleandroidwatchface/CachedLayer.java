@@ -0,0 +1,50 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+public class CachedLayer {
+
+    private final Canvas layerCanvas = new Canvas();
+
+    private Bitmap bitmap;
+    private boolean valid;
+
+    public boolean isValidFor(int width, int height) {
+        return valid
+                && bitmap != null
+                && bitmap.getWidth() == width
+                && bitmap.getHeight() == height;
+    }
+
+    public Canvas rebuild(int width, int height) {
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            release();
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            layerCanvas.setBitmap(bitmap);
+        }
+        valid = true;
+        return layerCanvas;
+    }
+
+    public Canvas getCanvas() {
+        return layerCanvas;
+    }
+
+    public void drawOn(Canvas canvas) {
+        canvas.drawBitmap(bitmap, 0, 0, null);
+    }
+
+    public void invalidate() {
+        valid = false;
+    }
+
+    public void release() {
+        if (bitmap != null) {
+            layerCanvas.setBitmap(null);
+            bitmap.recycle();
+            bitmap = null;
+        }
+        valid = false;
+    }
+}
@@ -0,0 +1,72 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+public class DigitAtlas {
+
+    private static final int PADDING = 2;
+
+    private final Bitmap bitmap;
+    private final float[] advances;
+    private final int[] cellLefts;
+    private final int[] cellWidths;
+    private final int baseline;
+    private final Rect source = new Rect();
+    private final Rect destination = new Rect();
+
+    public static DigitAtlas newInstance(Paint paint) {
+        char[] glyphs = GlyphMetrics.ALPHABET.toCharArray();
+        float[] advances = new float[glyphs.length];
+        int[] cellLefts = new int[glyphs.length];
+        int[] cellWidths = new int[glyphs.length];
+
+        int atlasWidth = 0;
+        for (int i = 0; i < glyphs.length; i++) {
+            advances[i] = paint.measureText(glyphs, i, 1);
+            cellLefts[i] = atlasWidth;
+            cellWidths[i] = (int) Math.ceil(advances[i]) + 2 * PADDING;
+            atlasWidth += cellWidths[i];
+        }
+
+        Paint.FontMetricsInt fontMetrics = paint.getFontMetricsInt();
+        int baseline = -fontMetrics.ascent;
+        int atlasHeight = fontMetrics.descent - fontMetrics.ascent;
+
+        Bitmap bitmap = Bitmap.createBitmap(atlasWidth, atlasHeight, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        for (int i = 0; i < glyphs.length; i++) {
+            canvas.drawText(glyphs, i, 1, cellLefts[i] + PADDING, baseline, paint);
+        }
+
+        return new DigitAtlas(bitmap, advances, cellLefts, cellWidths, baseline);
+    }
+
+    DigitAtlas(Bitmap bitmap, float[] advances, int[] cellLefts, int[] cellWidths, int baseline) {
+        this.bitmap = bitmap;
+        this.advances = advances;
+        this.cellLefts = cellLefts;
+        this.cellWidths = cellWidths;
+        this.baseline = baseline;
+    }
+
+    public void drawText(Canvas canvas, char[] text, int start, int length, float x, float y) {
+        int top = Math.round(y) - baseline;
+        int bottom = top + bitmap.getHeight();
+        float pen = x;
+        for (int i = start; i < start + length; i++) {
+            int index = GlyphMetrics.indexOf(text[i]);
+            int left = Math.round(pen) - PADDING;
+            source.set(cellLefts[index], 0, cellLefts[index] + cellWidths[index], bitmap.getHeight());
+            destination.set(left, top, left + cellWidths[index], bottom);
+            canvas.drawBitmap(bitmap, source, destination, null);
+            pen += advances[index];
+        }
+    }
+
+    public void recycle() {
+        bitmap.recycle();
+    }
+}
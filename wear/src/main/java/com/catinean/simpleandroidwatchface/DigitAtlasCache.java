@@ -0,0 +1,77 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.graphics.Paint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class DigitAtlasCache {
+
+    private static final int MAX_ATLASES = 4;
+
+    private final Key probe = new Key();
+
+    private final LinkedHashMap<Key, DigitAtlas> atlases = new LinkedHashMap<Key, DigitAtlas>(MAX_ATLASES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, DigitAtlas> eldest) {
+            if (size() > MAX_ATLASES) {
+                eldest.getValue().recycle();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public DigitAtlas obtain(Paint paint) {
+        probe.set(paint.getTextSize(), paint.getColor(), paint.isAntiAlias());
+        DigitAtlas atlas = atlases.get(probe);
+        if (atlas == null) {
+            atlas = DigitAtlas.newInstance(paint);
+            Key key = new Key();
+            key.set(probe.textSize, probe.colour, probe.antiAlias);
+            atlases.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    public void release() {
+        for (DigitAtlas atlas : atlases.values()) {
+            atlas.recycle();
+        }
+        atlases.clear();
+    }
+
+    private static final class Key {
+        private float textSize;
+        private int colour;
+        private boolean antiAlias;
+
+        void set(float textSize, int colour, boolean antiAlias) {
+            this.textSize = textSize;
+            this.colour = colour;
+            this.antiAlias = antiAlias;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Float.compare(textSize, other.textSize) == 0
+                    && colour == other.colour
+                    && antiAlias == other.antiAlias;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(textSize);
+            result = 31 * result + colour;
+            result = 31 * result + (antiAlias ? 1 : 0);
+            return result;
+        }
+    }
+}
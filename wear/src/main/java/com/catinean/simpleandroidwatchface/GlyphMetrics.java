@@ -0,0 +1,101 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+
+public class GlyphMetrics implements TextMeasurer {
+
+    static final String ALPHABET = "0123456789.";
+    private static final int SEPARATOR_INDEX = ALPHABET.length() - 1;
+
+    private final char[] glyphs = ALPHABET.toCharArray();
+    private final float[] advances = new float[glyphs.length];
+    private final Rect glyphBounds = new Rect();
+    private final Paint.FontMetrics fontMetrics = new Paint.FontMetrics();
+
+    private boolean measured;
+    private float textSize;
+    private boolean antiAlias;
+    private Typeface typeface;
+    private float maxDigitAdvance;
+    private int top;
+    private int bottom;
+    private float ascent;
+    private float descent;
+
+    public boolean isValidFor(Paint paint) {
+        return measured
+                && textSize == paint.getTextSize()
+                && antiAlias == paint.isAntiAlias()
+                && typeface == paint.getTypeface();
+    }
+
+    public void invalidate() {
+        measured = false;
+    }
+
+    public void measure(Paint paint) {
+        textSize = paint.getTextSize();
+        antiAlias = paint.isAntiAlias();
+        typeface = paint.getTypeface();
+
+        maxDigitAdvance = 0;
+        top = Integer.MAX_VALUE;
+        bottom = Integer.MIN_VALUE;
+        for (int i = 0; i < glyphs.length; i++) {
+            advances[i] = paint.measureText(glyphs, i, 1);
+            if (Character.isDigit(glyphs[i])) {
+                maxDigitAdvance = Math.max(maxDigitAdvance, advances[i]);
+            }
+            paint.getTextBounds(glyphs, i, 1, glyphBounds);
+            top = Math.min(top, glyphBounds.top);
+            bottom = Math.max(bottom, glyphBounds.bottom);
+        }
+
+        paint.getFontMetrics(fontMetrics);
+        ascent = fontMetrics.ascent;
+        descent = fontMetrics.descent;
+        measured = true;
+    }
+
+    @Override
+    public float measureText(char[] text, int start, int length) {
+        float width = 0;
+        for (int i = start; i < start + length; i++) {
+            width += advanceOf(text[i]);
+        }
+        return width;
+    }
+
+    @Override
+    public float getMaxDigitAdvance() {
+        return maxDigitAdvance;
+    }
+
+    @Override
+    public int getTextHeight() {
+        return bottom - top;
+    }
+
+    @Override
+    public float getAscent() {
+        return ascent;
+    }
+
+    @Override
+    public float getDescent() {
+        return descent;
+    }
+
+    private float advanceOf(char glyph) {
+        return advances[indexOf(glyph)];
+    }
+
+    static int indexOf(char glyph) {
+        if (glyph >= '0' && glyph <= '9') {
+            return glyph - '0';
+        }
+        return SEPARATOR_INDEX;
+    }
+}
@@ -0,0 +1,22 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.os.Handler;
+
+public class HandlerTaskHandler implements TickScheduler.TaskHandler {
+
+    private final Handler handler;
+
+    public HandlerTaskHandler(Handler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void postDelayed(Runnable task, long delayMillis) {
+        handler.postDelayed(task, delayMillis);
+    }
+
+    @Override
+    public void removeCallbacks(Runnable task) {
+        handler.removeCallbacks(task);
+    }
+}
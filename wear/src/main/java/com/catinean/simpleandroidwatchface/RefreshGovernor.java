@@ -0,0 +1,145 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.res.Resources;
+import android.os.BatteryManager;
+import android.os.Build;
+import android.os.PowerManager;
+
+import java.io.PrintWriter;
+
+public class RefreshGovernor {
+
+    private static final int LOG_CAPACITY = 32;
+
+    private final Context context;
+    private final PowerManager powerManager;
+    private final RefreshState state;
+    private final long[] transitionTimes = new long[LOG_CAPACITY];
+    private final int[] transitionReasons = new int[LOG_CAPACITY];
+    private final int[] transitionBatteryPercents = new int[LOG_CAPACITY];
+
+    private boolean registered;
+    private long transitionCount;
+
+    public static RefreshGovernor newInstance(Context context, RefreshState.Listener listener) {
+        Resources resources = context.getResources();
+        RefreshPolicy policy = new RefreshPolicy(
+                resources.getInteger(R.integer.refresh_low_battery_percent),
+                resources.getBoolean(R.bool.refresh_degrade_in_power_save),
+                resources.getBoolean(R.bool.refresh_degrade_under_peek_card));
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        return new RefreshGovernor(context, powerManager, policy, listener);
+    }
+
+    RefreshGovernor(Context context, PowerManager powerManager, RefreshPolicy policy, RefreshState.Listener listener) {
+        this.context = context;
+        this.powerManager = powerManager;
+        this.state = new RefreshState(policy, listener);
+    }
+
+    public void setPolicy(RefreshPolicy policy) {
+        state.setPolicy(policy);
+        evaluate();
+    }
+
+    public RefreshPolicy getPolicy() {
+        return state.getPolicy();
+    }
+
+    public boolean shouldShowSeconds() {
+        return state.shouldShowSeconds();
+    }
+
+    public void register() {
+        if (registered) {
+            return;
+        }
+        IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            filter.addAction(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED);
+        }
+        Intent batteryStatus = context.registerReceiver(powerReceiver, filter);
+        registered = true;
+        if (batteryStatus != null) {
+            readBatteryStatus(batteryStatus);
+        }
+        readPowerSaveMode();
+        evaluate();
+    }
+
+    public void unregister() {
+        if (!registered) {
+            return;
+        }
+        context.unregisterReceiver(powerReceiver);
+        registered = false;
+    }
+
+    public void setPeekCardShown(boolean peekCardShown) {
+        state.setPeekCardShown(peekCardShown);
+        evaluate();
+    }
+
+    private final BroadcastReceiver powerReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (Intent.ACTION_BATTERY_CHANGED.equals(intent.getAction())) {
+                readBatteryStatus(intent);
+            } else {
+                readPowerSaveMode();
+            }
+            evaluate();
+        }
+    };
+
+    private void readBatteryStatus(Intent batteryStatus) {
+        int level = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        state.setBatteryPercent(level < 0 || scale <= 0 ? RefreshPolicy.UNKNOWN_BATTERY_PERCENT : level * 100 / scale);
+        state.setCharging(batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0);
+    }
+
+    private void readPowerSaveMode() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            state.setPowerSave(powerManager.isPowerSaveMode());
+        }
+    }
+
+    private void evaluate() {
+        if (state.evaluate()) {
+            recordTransition();
+        }
+    }
+
+    private void recordTransition() {
+        int slot = (int) (transitionCount % LOG_CAPACITY);
+        transitionTimes[slot] = System.currentTimeMillis();
+        transitionReasons[slot] = state.getReason();
+        transitionBatteryPercents[slot] = state.getBatteryPercent();
+        transitionCount++;
+    }
+
+    public void dump(String prefix, PrintWriter out) {
+        out.print(prefix);
+        out.println(state.getPolicy());
+        out.print(prefix);
+        out.println("showSeconds=" + shouldShowSeconds() + " reason=" + RefreshPolicy.reasonName(state.getReason())
+                + " battery=" + state.getBatteryPercent() + "% charging=" + state.isCharging()
+                + " powerSave=" + state.isPowerSave() + " peekCard=" + state.isPeekCardShown());
+        out.print(prefix);
+        out.println("transitions (" + transitionCount + " total):");
+        long first = Math.max(0, transitionCount - LOG_CAPACITY);
+        for (long i = first; i < transitionCount; i++) {
+            int slot = (int) (i % LOG_CAPACITY);
+            out.print(prefix);
+            out.println("  " + transitionTimes[slot]
+                    + " -> " + (RefreshPolicy.showsSeconds(transitionReasons[slot]) ? "seconds" : "minutes")
+                    + " reason=" + RefreshPolicy.reasonName(transitionReasons[slot])
+                    + " battery=" + transitionBatteryPercents[slot] + "%");
+        }
+    }
+}
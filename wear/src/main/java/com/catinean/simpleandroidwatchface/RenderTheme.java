@@ -0,0 +1,75 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.graphics.Bitmap;
+import android.graphics.Paint;
+
+public class RenderTheme {
+
+    private final long id;
+    private final int backgroundColour;
+    private final int dateAndTimeColour;
+    private final Paint timePaint;
+    private final Paint datePaint;
+    private final int layoutVariant;
+    private final Bitmap background;
+
+    RenderTheme(long id, int backgroundColour, int dateAndTimeColour, Paint timePaint, Paint datePaint,
+                int layoutVariant, Bitmap background) {
+        this.id = id;
+        this.backgroundColour = backgroundColour;
+        this.dateAndTimeColour = dateAndTimeColour;
+        this.timePaint = timePaint;
+        this.datePaint = datePaint;
+        this.layoutVariant = layoutVariant;
+        this.background = background;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getBackgroundColour() {
+        return backgroundColour;
+    }
+
+    public int getDateAndTimeColour() {
+        return dateAndTimeColour;
+    }
+
+    public Paint getTimePaint() {
+        return timePaint;
+    }
+
+    public Paint getDatePaint() {
+        return datePaint;
+    }
+
+    public int getLayoutVariant() {
+        return layoutVariant;
+    }
+
+    public boolean hasBackground() {
+        return background != null;
+    }
+
+    public Bitmap getBackground() {
+        return background;
+    }
+
+    public int getByteCount() {
+        return background == null ? 0 : background.getByteCount();
+    }
+
+    @Override
+    public String toString() {
+        return "RenderTheme{"
+                + "id=" + id
+                + ", backgroundColour=#" + Integer.toHexString(backgroundColour)
+                + ", dateAndTimeColour=#" + Integer.toHexString(dateAndTimeColour)
+                + ", timeTextSize=" + timePaint.getTextSize()
+                + ", dateTextSize=" + datePaint.getTextSize()
+                + ", layoutVariant=" + layoutVariant
+                + ", bytes=" + getByteCount()
+                + '}';
+    }
+}
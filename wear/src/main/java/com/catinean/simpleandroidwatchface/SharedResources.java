@@ -0,0 +1,150 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Paint;
+
+import java.io.PrintWriter;
+
+public class SharedResources {
+
+    private static final int TRACE_CAPACITY = 1024;
+
+    private static SharedResources instance;
+
+    private final Paint timePaint;
+    private final Paint datePaint;
+    private final GlyphMetrics timeMetrics = new GlyphMetrics();
+    private final GlyphMetrics dateMetrics = new GlyphMetrics();
+    private final DigitAtlasCache atlasCache = new DigitAtlasCache();
+    private final WatchFaceConfigCache configCache;
+    private final WatchConfigSyncManager syncManager;
+    private final EventTrace trace;
+
+    private int references;
+    private long acquisitions;
+
+    public static SharedResources acquire(Context context) {
+        if (instance == null) {
+            instance = newInstance(context.getApplicationContext());
+        }
+        instance.references++;
+        instance.acquisitions++;
+        return instance;
+    }
+
+    private static SharedResources newInstance(Context context) {
+        Resources resources = context.getResources();
+
+        Paint timePaint = new Paint();
+        timePaint.setColor(WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR);
+        timePaint.setTextSize(resources.getDimension(R.dimen.time_size));
+        timePaint.setAntiAlias(true);
+
+        Paint datePaint = new Paint();
+        datePaint.setColor(WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR);
+        datePaint.setTextSize(resources.getDimension(R.dimen.date_size));
+        datePaint.setAntiAlias(true);
+
+        ThemeCache themeCache = ThemeCache.newInstance(context, timePaint, datePaint);
+        EventTrace trace = new EventTrace(TRACE_CAPACITY, new SystraceSectionMarker());
+        return new SharedResources(timePaint, datePaint, WatchFaceConfigCache.newInstance(context),
+                WatchConfigSyncManager.newInstance(context, themeCache, trace), trace);
+    }
+
+    SharedResources(Paint timePaint, Paint datePaint, WatchFaceConfigCache configCache,
+                    WatchConfigSyncManager syncManager, EventTrace trace) {
+        this.timePaint = timePaint;
+        this.datePaint = datePaint;
+        this.configCache = configCache;
+        this.syncManager = syncManager;
+        this.trace = trace;
+
+        syncManager.addListener(persistingListener);
+        syncManager.start(configCache.load());
+    }
+
+    public void release() {
+        if (references == 0) {
+            throw new IllegalStateException("SharedResources released more often than acquired");
+        }
+        references--;
+        if (references == 0) {
+            syncManager.stop();
+            syncManager.removeListener(persistingListener);
+            atlasCache.release();
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+
+    public Paint newTimePaint() {
+        return new Paint(timePaint);
+    }
+
+    public Paint newDatePaint() {
+        return new Paint(datePaint);
+    }
+
+    public float getTimeTextSize() {
+        return timePaint.getTextSize();
+    }
+
+    public float getDateTextSize() {
+        return datePaint.getTextSize();
+    }
+
+    public GlyphMetrics getTimeMetrics() {
+        return timeMetrics;
+    }
+
+    public GlyphMetrics getDateMetrics() {
+        return dateMetrics;
+    }
+
+    public DigitAtlasCache getAtlasCache() {
+        return atlasCache;
+    }
+
+    public WatchConfigSyncManager getSyncManager() {
+        return syncManager;
+    }
+
+    public EventTrace getEventTrace() {
+        return trace;
+    }
+
+    public WatchFaceConfig getLatestConfig() {
+        return syncManager.getEffectiveConfig();
+    }
+
+    public RenderTheme getLatestTheme() {
+        return syncManager.getCurrentTheme();
+    }
+
+    private final WatchConfigSyncManager.Listener persistingListener = new WatchConfigSyncManager.Listener() {
+        @Override
+        public void onConfigChanged(WatchFaceConfig config) {
+            configCache.save(config);
+        }
+
+        @Override
+        public void onPreviewChanged() {
+            //no-op
+        }
+
+        @Override
+        public void onThemeChanged(RenderTheme theme) {
+            //no-op
+        }
+    };
+
+    public void dump(String prefix, PrintWriter out) {
+        out.print(prefix);
+        out.println("references=" + references + " acquisitions=" + acquisitions);
+        out.print(prefix);
+        out.println("config sync:");
+        syncManager.dump(prefix + "  ", out);
+    }
+}
@@ -1,128 +1,272 @@
 package com.catinean.simpleandroidwatchface;
 
-import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Rect;
-import android.text.format.Time;
+
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class SimpleWatchFace {
 
-    private static final String TIME_FORMAT_WITHOUT_SECONDS = "%02d.%02d";
-    private static final String TIME_FORMAT_WITH_SECONDS = TIME_FORMAT_WITHOUT_SECONDS + ".%02d";
-    private static final String DATE_FORMAT = "%02d.%02d.%d";
-    private static final int DATE_AND_TIME_DEFAULT_COLOUR = Color.WHITE;
     private static final int BACKGROUND_DEFAULT_COLOUR = Color.BLACK;
+    private static final int MAX_DISPLAY_LIST_OPS = 32;
+    private static final int MAX_DISPLAY_LIST_CHARS = 256;
+    private static final long COLOUR_TRANSITION_MILLIS = 300;
 
     private final Paint timePaint;
     private final Paint datePaint;
     private final Paint backgroundPaint;
-    private final Time time;
+    private final WatchClock time;
+    private final AmbientRenderer ambientRenderer;
+    private final GlyphMetrics timeMetrics;
+    private final GlyphMetrics dateMetrics;
+    private final WatchFaceLayout layout = new WatchFaceLayout();
+    private final CachedLayer layer = new CachedLayer();
+    private final DigitAtlasCache atlasCache;
+    private final AtomicReference<WatchFaceConfig> publishedConfig = new AtomicReference<WatchFaceConfig>();
+    private final AtomicReference<RenderTheme> publishedTheme = new AtomicReference<RenderTheme>();
+    private final FrameRecorder recorder;
+    private final ColourResolver colours = new ColourResolver();
+    private final DisplayListDiffer differ = new DisplayListDiffer();
+    private final Paint fillPaint = new Paint();
+    private final Rect bitmapBounds = new Rect();
+    private final ColourAnimator colourAnimator = new ColourAnimator(COLOUR_TRANSITION_MILLIS);
 
-    private boolean shouldShowSeconds = true;
-    private int backgroundColour = BACKGROUND_DEFAULT_COLOUR;
-    private int dateAndTimeColour = DATE_AND_TIME_DEFAULT_COLOUR;
+    private DisplayList displayList = new DisplayList(MAX_DISPLAY_LIST_OPS, MAX_DISPLAY_LIST_CHARS);
+    private DisplayList previousDisplayList = new DisplayList(MAX_DISPLAY_LIST_OPS, MAX_DISPLAY_LIST_CHARS);
+    private Canvas replayCanvas;
 
-    public static SimpleWatchFace newInstance(Context context) {
-        Paint timePaint = new Paint();
-        timePaint.setColor(DATE_AND_TIME_DEFAULT_COLOUR);
-        timePaint.setTextSize(context.getResources().getDimension(R.dimen.time_size));
-        timePaint.setAntiAlias(true);
+    private boolean compositingEnabled;
+    private boolean inAmbientMode;
 
-        Paint datePaint = new Paint();
-        datePaint.setColor(DATE_AND_TIME_DEFAULT_COLOUR);
-        datePaint.setTextSize(context.getResources().getDimension(R.dimen.date_size));
-        datePaint.setAntiAlias(true);
+    private WatchFaceConfig renderedConfig;
+    private RenderTheme renderedTheme;
+    private Bitmap themeBackground;
 
+    public static SimpleWatchFace newInstance(SharedResources resources) {
         Paint backgroundPaint = new Paint();
         backgroundPaint.setColor(BACKGROUND_DEFAULT_COLOUR);
 
-        return new SimpleWatchFace(timePaint, datePaint, backgroundPaint, new Time());
+        return new SimpleWatchFace(resources.newTimePaint(), resources.newDatePaint(), backgroundPaint,
+                new WatchClock(TimeZone.getDefault()), AmbientRenderer.newInstance(resources),
+                resources.getTimeMetrics(), resources.getDateMetrics(), resources.getAtlasCache());
     }
 
-    SimpleWatchFace(Paint timePaint, Paint datePaint, Paint backgroundPaint, Time time) {
+    SimpleWatchFace(Paint timePaint, Paint datePaint, Paint backgroundPaint, WatchClock time, AmbientRenderer ambientRenderer,
+                    GlyphMetrics timeMetrics, GlyphMetrics dateMetrics, DigitAtlasCache atlasCache) {
         this.timePaint = timePaint;
         this.datePaint = datePaint;
         this.backgroundPaint = backgroundPaint;
         this.time = time;
+        this.ambientRenderer = ambientRenderer;
+        this.timeMetrics = timeMetrics;
+        this.dateMetrics = dateMetrics;
+        this.atlasCache = atlasCache;
+        this.recorder = new FrameRecorder(time, layout, timeMetrics, dateMetrics);
     }
 
-    public void draw(Canvas canvas, Rect bounds) {
-        time.setToNow();
-        canvas.drawRect(0, 0, bounds.width(), bounds.height(), backgroundPaint);
+    public void addElement(WatchFaceElement element) {
+        recorder.addElement(element);
+        layer.invalidate();
+    }
+
+    public TickScheduler.Cadence getUpdateCadence() {
+        return recorder.getCadence();
+    }
 
-        String timeText = String.format(shouldShowSeconds ? TIME_FORMAT_WITH_SECONDS : TIME_FORMAT_WITHOUT_SECONDS, time.hour, time.minute, time.second);
-        float timeXOffset = computeXOffset(timeText, timePaint, bounds);
-        float timeYOffset = computeTimeYOffset(timeText, timePaint, bounds);
-        canvas.drawText(timeText, timeXOffset, timeYOffset, timePaint);
+    public void publishConfig(WatchFaceConfig config) {
+        publishedConfig.set(config);
+    }
 
-        String dateText = String.format(DATE_FORMAT, time.monthDay, (time.month + 1), time.year);
-        float dateXOffset = computeXOffset(dateText, datePaint, bounds);
-        float dateYOffset = computeDateYOffset(dateText, datePaint);
-        canvas.drawText(dateText, dateXOffset, timeYOffset + dateYOffset, datePaint);
+    public void publishTheme(RenderTheme theme) {
+        publishedTheme.set(theme);
     }
 
-    private float computeXOffset(String text, Paint paint, Rect watchBounds) {
-        float centerX = watchBounds.exactCenterX();
-        float timeLength = paint.measureText(text);
-        return centerX - (timeLength / 2.0f);
+    public void draw(Canvas canvas, Rect bounds) {
+        long now = System.currentTimeMillis();
+        int width = bounds.width();
+        int height = bounds.height();
+        if (inAmbientMode) {
+            ambientRenderer.draw(canvas, width, height, now);
+            return;
+        }
+
+        boolean themeChanged = applyPublishedTheme();
+        boolean configChanged = applyPublishedConfig();
+        if (themeChanged || configChanged) {
+            applyResolvedColours(now);
+        }
+        advanceTransitions(now);
+        time.update(now);
+        layoutIfNecessary(width, height);
+
+        recorder.setColours(backgroundPaint.getColor(), timePaint.getColor());
+        recorder.setBackgroundImage(themeBackground != null);
+        recorder.record(displayList);
+        if (compositingEnabled) {
+            drawComposited(canvas, width, height);
+        } else {
+            replayOnto(canvas);
+        }
+
+        DisplayList recorded = displayList;
+        displayList = previousDisplayList;
+        previousDisplayList = recorded;
     }
 
-    private float computeTimeYOffset(String timeText, Paint timePaint, Rect watchBounds) {
-        float centerY = watchBounds.exactCenterY();
-        Rect textBounds = new Rect();
-        timePaint.getTextBounds(timeText, 0, timeText.length(), textBounds);
-        int textHeight = textBounds.height();
-        return centerY + (textHeight / 2.0f);
+    private boolean applyPublishedTheme() {
+        RenderTheme theme = publishedTheme.get();
+        if (theme == null || theme == renderedTheme) {
+            return false;
+        }
+        int shownColour = timePaint.getColor();
+        timePaint.set(theme.getTimePaint());
+        datePaint.set(theme.getDatePaint());
+        timePaint.setColor(shownColour);
+        datePaint.setColor(shownColour);
+        layout.setVariant(theme.getLayoutVariant());
+        themeBackground = theme.getBackground();
+        colours.setThemeColours(theme.getBackgroundColour(), theme.getDateAndTimeColour());
+        layer.invalidate();
+        renderedTheme = theme;
+        return true;
     }
 
-    private float computeDateYOffset(String dateText, Paint datePaint) {
-        Rect textBounds = new Rect();
-        datePaint.getTextBounds(dateText, 0, dateText.length(), textBounds);
-        return textBounds.height() + 10.0f;
+    private boolean applyPublishedConfig() {
+        WatchFaceConfig config = publishedConfig.get();
+        if (config == null || config == renderedConfig) {
+            return false;
+        }
+        colours.setConfig(config);
+        renderedConfig = config;
+        return true;
     }
 
-    public void setAntiAlias(boolean antiAlias) {
-        timePaint.setAntiAlias(antiAlias);
-        datePaint.setAntiAlias(antiAlias);
+    private void applyResolvedColours(long now) {
+        if (colourAnimator.animateTo(colours.getBackgroundColour(), colours.getDateAndTimeColour(), now)) {
+            layer.invalidate();
+        }
     }
 
-    public void updateDateAndTimeColourTo(int colour) {
-        dateAndTimeColour = colour;
+    private void advanceTransitions(long now) {
+        backgroundPaint.setColor(colourAnimator.getBackgroundColour(now));
+        int colour = colourAnimator.getDateAndTimeColour(now);
         timePaint.setColor(colour);
         datePaint.setColor(colour);
     }
 
-    public void updateTimeZoneWith(String timeZone) {
-        time.clear(timeZone);
-        time.setToNow();
+    public boolean isAnimating() {
+        return colourAnimator.isAnimating();
     }
 
-    public void setShowSeconds(boolean showSeconds) {
-        shouldShowSeconds = showSeconds;
+    private void drawComposited(Canvas canvas, int width, int height) {
+        if (!layer.isValidFor(width, height)) {
+            replayOnto(layer.rebuild(width, height));
+        } else if (differ.diff(previousDisplayList, displayList)) {
+            Canvas layerCanvas = layer.getCanvas();
+            layerCanvas.save();
+            layerCanvas.clipRect(differ.getLeft(), differ.getTop(), differ.getRight(), differ.getBottom());
+            replayCanvas = layerCanvas;
+            displayList.replay(renderer, differ.getLeft(), differ.getTop(), differ.getRight(), differ.getBottom());
+            replayCanvas = null;
+            layerCanvas.restore();
+        }
+        layer.drawOn(canvas);
     }
 
-    public void updateBackgroundColourTo(int colour) {
-        backgroundColour = colour;
-        backgroundPaint.setColor(colour);
+    private void replayOnto(Canvas canvas) {
+        replayCanvas = canvas;
+        displayList.replay(renderer);
+        replayCanvas = null;
     }
 
-    public void restoreBackgroundColour() {
-        backgroundPaint.setColor(backgroundColour);
+    private final DisplayList.Renderer renderer = new DisplayList.Renderer() {
+        @Override
+        public void fillRect(int left, int top, int right, int bottom, int colour) {
+            fillPaint.setColor(colour);
+            replayCanvas.drawRect(left, top, right, bottom, fillPaint);
+        }
+
+        @Override
+        public void drawBitmap(int bitmapId, int left, int top, int right, int bottom) {
+            bitmapBounds.set(left, top, right, bottom);
+            replayCanvas.drawBitmap(themeBackground, null, bitmapBounds, null);
+        }
+
+        @Override
+        public void drawText(int font, char[] text, int start, int length, float x, float y, int colour) {
+            if (colourAnimator.isDateAndTimeAnimating()) {
+                replayCanvas.drawText(text, start, length, x, y, font == FrameRecorder.FONT_TIME ? timePaint : datePaint);
+                return;
+            }
+            DigitAtlas atlas = atlasCache.obtain(font == FrameRecorder.FONT_TIME ? timePaint : datePaint);
+            atlas.drawText(replayCanvas, text, start, length, x, y);
+        }
+    };
+
+    public void updateLayout(int width, int height) {
+        if (!timeMetrics.isValidFor(timePaint)) {
+            timeMetrics.measure(timePaint);
+        }
+        if (!dateMetrics.isValidFor(datePaint)) {
+            dateMetrics.measure(datePaint);
+        }
+
+        layout.update(width, height, timeMetrics, dateMetrics);
+        layer.invalidate();
+        ambientRenderer.updateLayout(width, height);
     }
 
-    public void updateBackgroundColourToDefault() {
-        backgroundPaint.setColor(BACKGROUND_DEFAULT_COLOUR);
+    private void layoutIfNecessary(int width, int height) {
+        if (!layout.isLaidOutFor(width, height)
+                || !timeMetrics.isValidFor(timePaint) || !dateMetrics.isValidFor(datePaint)) {
+            updateLayout(width, height);
+        }
+    }
+
+    public void setCompositingEnabled(boolean enabled) {
+        compositingEnabled = enabled;
+        if (!enabled) {
+            layer.release();
+        }
+    }
+
+    public void setAmbientMode(boolean inAmbientMode) {
+        this.inAmbientMode = inAmbientMode;
+        colourAnimator.setAmbientMode(inAmbientMode);
+    }
+
+    public void setLowBitAmbient(boolean lowBitAmbient) {
+        ambientRenderer.setLowBitAmbient(lowBitAmbient);
     }
 
-    public void updateDateAndTimeColourToDefault() {
-        timePaint.setColor(DATE_AND_TIME_DEFAULT_COLOUR);
-        datePaint.setColor(DATE_AND_TIME_DEFAULT_COLOUR);
+    public void setBurnInProtection(boolean burnInProtection) {
+        ambientRenderer.setBurnInProtection(burnInProtection);
     }
 
-    public void restoreDateAndTimeColour() {
-        timePaint.setColor(dateAndTimeColour);
-        datePaint.setColor(dateAndTimeColour);
+    public void prepareNextAmbientFrame() {
+        if (inAmbientMode) {
+            ambientRenderer.prepareNextFrame(System.currentTimeMillis());
+        }
+    }
+
+    public void release() {
+        ambientRenderer.release();
+        layer.release();
+    }
+
+    public void updateTimeZoneWith(String timeZone) {
+        TimeZone zone = timeZone == null ? TimeZone.getDefault() : TimeZone.getTimeZone(timeZone);
+        time.setTimeZone(zone);
+        ambientRenderer.setTimeZone(zone);
+        layer.invalidate();
+    }
+
+    public void setShowSeconds(boolean showSeconds) {
+        recorder.setShowSeconds(showSeconds);
+        layer.invalidate();
     }
 }
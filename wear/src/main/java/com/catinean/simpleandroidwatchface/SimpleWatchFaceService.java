@@ -5,48 +5,44 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Rect;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
 import android.support.wearable.watchface.CanvasWatchFaceService;
 import android.support.wearable.watchface.WatchFaceStyle;
-import android.util.Log;
+import android.util.Base64;
 import android.view.SurfaceHolder;
 
-import com.google.android.gms.common.ConnectionResult;
-import com.google.android.gms.common.api.GoogleApiClient;
-import com.google.android.gms.common.api.ResultCallback;
-import com.google.android.gms.wearable.DataApi;
-import com.google.android.gms.wearable.DataEvent;
-import com.google.android.gms.wearable.DataEventBuffer;
-import com.google.android.gms.wearable.DataItem;
-import com.google.android.gms.wearable.DataItemBuffer;
-import com.google.android.gms.wearable.DataMap;
-import com.google.android.gms.wearable.DataMapItem;
-import com.google.android.gms.wearable.Wearable;
-
-import java.util.concurrent.TimeUnit;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
 
 public class SimpleWatchFaceService extends CanvasWatchFaceService {
 
-    private static final long TICK_PERIOD_MILLIS = TimeUnit.SECONDS.toMillis(1);
-
     @Override
     public Engine onCreateEngine() {
         return new SimpleEngine();
     }
 
-    private class SimpleEngine extends CanvasWatchFaceService.Engine implements
-            GoogleApiClient.ConnectionCallbacks, GoogleApiClient.OnConnectionFailedListener {
+    private class SimpleEngine extends CanvasWatchFaceService.Engine {
 
         private static final String ACTION_TIME_ZONE = "time-zone";
-        private static final String TAG = "SimpleEngine";
+        private static final String DUMP_ARG_SNAPSHOT = "--snapshot";
+        private static final String DUMP_ARG_EXPORT_TRACE = "--export-trace";
+        private static final String TRACE_FILE_NAME = "event-trace.bin";
+        private static final int DUMP_TRACE_EVENTS = 64;
 
         private SimpleWatchFace watchFace;
-        private Handler timeTick;
-        private GoogleApiClient googleApiClient;
+        private WatchFaceController controller;
+        private SharedResources resources;
+        private RefreshGovernor refreshGovernor;
+        private final FrameMetrics frameMetrics = new FrameMetrics();
+        private Handler mainHandler;
+        private EventTrace trace;
 
         @Override
         public void onCreate(SurfaceHolder holder) {
@@ -59,64 +55,43 @@ public class SimpleWatchFaceService extends CanvasWatchFaceService {
                     .setShowSystemUiTime(false)
                     .build());
 
-            timeTick = new Handler(Looper.myLooper());
-            startTimerIfNecessary();
-
-            watchFace = SimpleWatchFace.newInstance(SimpleWatchFaceService.this);
-            googleApiClient = new GoogleApiClient.Builder(SimpleWatchFaceService.this)
-                    .addApi(Wearable.API)
-                    .addConnectionCallbacks(this)
-                    .addOnConnectionFailedListener(this)
-                    .build();
-        }
-
-        private void startTimerIfNecessary() {
-            timeTick.removeCallbacks(timeRunnable);
-            if (isVisible() && !isInAmbientMode()) {
-                timeTick.post(timeRunnable);
-            }
+            mainHandler = new Handler(Looper.myLooper());
+            resources = SharedResources.acquire(SimpleWatchFaceService.this);
+            trace = resources.getEventTrace();
+            watchFace = SimpleWatchFace.newInstance(resources);
+            watchFace.setCompositingEnabled(true);
+
+            controller = new WatchFaceController(TickScheduler.SYSTEM_CLOCK, new HandlerTaskHandler(mainHandler),
+                    frameMetrics, trace, controllerHost);
+            controller.setCadence(watchFace.getUpdateCadence());
+            watchFace.setAmbientMode(isInAmbientMode());
+            controller.setInitialState(isVisible(), isInAmbientMode());
+            refreshGovernor = RefreshGovernor.newInstance(SimpleWatchFaceService.this, refreshListener);
+
+            resources.getSyncManager().addListener(syncListener);
+            watchFace.publishConfig(resources.getLatestConfig());
+            watchFace.publishTheme(resources.getLatestTheme());
         }
 
-        private final Runnable timeRunnable = new Runnable() {
+        private final WatchFaceController.Host controllerHost = new WatchFaceController.Host() {
             @Override
-            public void run() {
-                onSecondTick();
-
-                if (isVisible() && !isInAmbientMode()) {
-                    timeTick.postDelayed(this, TICK_PERIOD_MILLIS);
-                }
+            public void invalidate() {
+                SimpleEngine.this.invalidate();
             }
         };
 
-        private void onSecondTick() {
-            invalidateIfNecessary();
-        }
-
-        private void invalidateIfNecessary() {
-            if (isVisible() && !isInAmbientMode()) {
-                invalidate();
-            }
-        }
-
         @Override
         public void onVisibilityChanged(boolean visible) {
             super.onVisibilityChanged(visible);
             if (visible) {
                 registerTimeZoneReceiver();
-                googleApiClient.connect();
+                refreshGovernor.register();
             } else {
                 unregisterTimeZoneReceiver();
-                releaseGoogleApiClient();
+                refreshGovernor.unregister();
             }
 
-            startTimerIfNecessary();
-        }
-
-        private void releaseGoogleApiClient() {
-            if (googleApiClient != null && googleApiClient.isConnected()) {
-                Wearable.DataApi.removeListener(googleApiClient, onDataChangedListener);
-                googleApiClient.disconnect();
-            }
+            controller.onVisibilityChanged(visible);
         }
 
         private void unregisterTimeZoneReceiver() {
@@ -133,105 +108,155 @@ public class SimpleWatchFaceService extends CanvasWatchFaceService {
             public void onReceive(Context context, Intent intent) {
                 if (Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction())) {
                     watchFace.updateTimeZoneWith(intent.getStringExtra(ACTION_TIME_ZONE));
+                    controller.onTimeZoneChanged();
                 }
             }
         };
 
+        private final RefreshState.Listener refreshListener = new RefreshState.Listener() {
+            @Override
+            public void onShowSecondsChanged(boolean showSeconds) {
+                watchFace.setShowSeconds(showSeconds);
+                controller.onCadenceChanged();
+            }
+        };
+
+        @Override
+        public void onPeekCardPositionUpdate(Rect rect) {
+            super.onPeekCardPositionUpdate(rect);
+            refreshGovernor.setPeekCardShown(!rect.isEmpty());
+        }
+
+        @Override
+        public void onSurfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+            super.onSurfaceChanged(holder, format, width, height);
+            watchFace.updateLayout(width, height);
+        }
+
         @Override
         public void onDraw(Canvas canvas, Rect bounds) {
             super.onDraw(canvas, bounds);
+            trace.beginSection(EventTrace.DRAW_BEGIN, isInAmbientMode() ? 1 : 0);
+            long drawStart = System.nanoTime();
             watchFace.draw(canvas, bounds);
+            long drawDuration = System.nanoTime() - drawStart;
+            frameMetrics.recordDrawDuration(drawDuration);
+            trace.endSection(EventTrace.DRAW_END, drawDuration / 1000);
+            controller.onFrameDrawn(watchFace.isAnimating());
+            if (isInAmbientMode()) {
+                mainHandler.post(prepareNextAmbientFrame);
+            }
+        }
+
+        @Override
+        public void onPropertiesChanged(Bundle properties) {
+            super.onPropertiesChanged(properties);
+            watchFace.setLowBitAmbient(properties.getBoolean(PROPERTY_LOW_BIT_AMBIENT, false));
+            watchFace.setBurnInProtection(properties.getBoolean(PROPERTY_BURN_IN_PROTECTION, false));
         }
 
         @Override
         public void onTimeTick() {
             super.onTimeTick();
-            invalidate();
+            controller.onTimeTick();
         }
 
         @Override
         public void onAmbientModeChanged(boolean inAmbientMode) {
             super.onAmbientModeChanged(inAmbientMode);
-            watchFace.setAntiAlias(!inAmbientMode);
-            watchFace.setShowSeconds(!isInAmbientMode());
-
-            if (inAmbientMode) {
-                watchFace.updateBackgroundColourToDefault();
-                watchFace.updateDateAndTimeColourToDefault();
-            } else {
-                watchFace.restoreBackgroundColour();
-                watchFace.restoreDateAndTimeColour();
-            }
-
-            invalidate();
-
-            startTimerIfNecessary();
+            watchFace.setAmbientMode(inAmbientMode);
+            controller.onAmbientModeChanged(inAmbientMode);
         }
 
-        @Override
-        public void onConnected(Bundle bundle) {
-            Log.d(TAG, "connected GoogleAPI");
-
-            Wearable.DataApi.addListener(googleApiClient, onDataChangedListener);
-            Wearable.DataApi.getDataItems(googleApiClient).setResultCallback(onConnectedResultCallback);
-        }
-
-        private final DataApi.DataListener onDataChangedListener = new DataApi.DataListener() {
+        private final Runnable prepareNextAmbientFrame = new Runnable() {
             @Override
-            public void onDataChanged(DataEventBuffer dataEvents) {
-                for (DataEvent event : dataEvents) {
-                    if (event.getType() == DataEvent.TYPE_CHANGED) {
-                        DataItem item = event.getDataItem();
-                        processConfigurationFor(item);
-                    }
-                }
-
-                dataEvents.release();
-                invalidateIfNecessary();
+            public void run() {
+                watchFace.prepareNextAmbientFrame();
             }
         };
 
-        private void processConfigurationFor(DataItem item) {
-            if (WatchfaceSyncCommons.PATH.equals(item.getUri().getPath())) {
-                DataMap dataMap = DataMapItem.fromDataItem(item).getDataMap();
-                if (dataMap.containsKey(WatchfaceSyncCommons.KEY_BACKGROUND_COLOUR)) {
-                    String backgroundColour = dataMap.getString(WatchfaceSyncCommons.KEY_BACKGROUND_COLOUR);
-                    watchFace.updateBackgroundColourTo(Color.parseColor(backgroundColour));
-                }
+        private final WatchConfigSyncManager.Listener syncListener = new WatchConfigSyncManager.Listener() {
+            @Override
+            public void onConfigChanged(WatchFaceConfig config) {
+                mainHandler.post(applyLatestConfig);
+            }
 
-                if (dataMap.containsKey(WatchfaceSyncCommons.KEY_DATE_TIME_COLOUR)) {
-                    String timeColour = dataMap.getString(WatchfaceSyncCommons.KEY_DATE_TIME_COLOUR);
-                    watchFace.updateDateAndTimeColourTo(Color.parseColor(timeColour));
-                }
+            @Override
+            public void onPreviewChanged() {
+                mainHandler.post(applyLatestConfig);
             }
-        }
 
-        private final ResultCallback<DataItemBuffer> onConnectedResultCallback = new ResultCallback<DataItemBuffer>() {
             @Override
-            public void onResult(DataItemBuffer dataItems) {
-                for (DataItem item : dataItems) {
-                    processConfigurationFor(item);
-                }
+            public void onThemeChanged(RenderTheme theme) {
+                mainHandler.post(applyLatestConfig);
+            }
+        };
 
-                dataItems.release();
-                invalidateIfNecessary();
+        private final Runnable applyLatestConfig = new Runnable() {
+            @Override
+            public void run() {
+                watchFace.publishConfig(resources.getLatestConfig());
+                watchFace.publishTheme(resources.getLatestTheme());
+                trace.record(EventTrace.CONFIG_APPLIED, resources.getLatestConfig().getRevision());
+                controller.onDataChanged();
             }
         };
 
         @Override
-        public void onConnectionSuspended(int i) {
-            Log.e(TAG, "suspended GoogleAPI");
+        protected void dump(String prefix, FileDescriptor fd, PrintWriter out, String[] args) {
+            super.dump(prefix, fd, out, args);
+            out.print(prefix);
+            out.println("SimpleEngine frame metrics:");
+            frameMetrics.dump(prefix + "  ", out);
+            if (Arrays.asList(args).contains(DUMP_ARG_SNAPSHOT)) {
+                out.print(prefix);
+                out.println("  snapshot=" + Base64.encodeToString(frameMetrics.toSnapshot(), Base64.NO_WRAP));
+            }
+            out.print(prefix);
+            out.println("SimpleEngine shared resources:");
+            resources.dump(prefix + "  ", out);
+            out.print(prefix);
+            out.println("SimpleEngine refresh governor:");
+            refreshGovernor.dump(prefix + "  ", out);
+            out.print(prefix);
+            out.println("SimpleEngine event trace:");
+            trace.dump(prefix + "  ", out, DUMP_TRACE_EVENTS);
+            if (Arrays.asList(args).contains(DUMP_ARG_EXPORT_TRACE)) {
+                exportTrace(prefix + "  ", out);
+            }
         }
 
-        @Override
-        public void onConnectionFailed(ConnectionResult connectionResult) {
-            Log.e(TAG, "connectionFailed GoogleAPI");
+        private void exportTrace(String prefix, PrintWriter out) {
+            File file = new File(getFilesDir(), TRACE_FILE_NAME);
+            FileOutputStream stream = null;
+            try {
+                stream = new FileOutputStream(file);
+                trace.writeTo(stream);
+                out.print(prefix);
+                out.println("exported=" + file.getAbsolutePath());
+            } catch (IOException e) {
+                out.print(prefix);
+                out.println("export failed: " + e);
+            } finally {
+                if (stream != null) {
+                    try {
+                        stream.close();
+                    } catch (IOException e) {
+                        //no-op
+                    }
+                }
+            }
         }
 
         @Override
         public void onDestroy() {
-            timeTick.removeCallbacks(timeRunnable);
-            releaseGoogleApiClient();
+            controller.stop();
+            refreshGovernor.unregister();
+            resources.getSyncManager().removeListener(syncListener);
+            mainHandler.removeCallbacks(applyLatestConfig);
+            mainHandler.removeCallbacks(prepareNextAmbientFrame);
+            watchFace.release();
+            resources.release();
 
             super.onDestroy();
         }
@@ -0,0 +1,16 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.os.Trace;
+
+public class SystraceSectionMarker implements EventTrace.SectionMarker {
+
+    @Override
+    public void beginSection(String name) {
+        Trace.beginSection(name);
+    }
+
+    @Override
+    public void endSection() {
+        Trace.endSection();
+    }
+}
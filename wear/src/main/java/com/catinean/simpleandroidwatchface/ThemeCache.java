@@ -0,0 +1,126 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Paint;
+import android.util.DisplayMetrics;
+
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decoded themes keyed by bundle id, least recently used first. Only touched from the sync worker
+ * thread; evicted themes are dropped rather than recycled because a face may still be drawing one.
+ */
+public class ThemeCache {
+
+    private static final int MAX_THEMES = 4;
+    private static final int MAX_BYTES = 4 * 1024 * 1024;
+
+    private final Paint timeTemplate;
+    private final Paint dateTemplate;
+    private final float density;
+    private final int width;
+    private final int height;
+    private final LinkedHashMap<Long, RenderTheme> themes = new LinkedHashMap<Long, RenderTheme>(MAX_THEMES, 0.75f, true);
+
+    private int bytes;
+    private long hits;
+    private long decodes;
+    private long evictions;
+
+    public static ThemeCache newInstance(Context context, Paint timeTemplate, Paint dateTemplate) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        return new ThemeCache(timeTemplate, dateTemplate, metrics.density, metrics.widthPixels, metrics.heightPixels);
+    }
+
+    ThemeCache(Paint timeTemplate, Paint dateTemplate, float density, int width, int height) {
+        this.timeTemplate = timeTemplate;
+        this.dateTemplate = dateTemplate;
+        this.density = density;
+        this.width = width;
+        this.height = height;
+    }
+
+    public RenderTheme get(long id) {
+        RenderTheme theme = themes.get(id);
+        if (theme != null) {
+            hits++;
+        }
+        return theme;
+    }
+
+    public RenderTheme decode(byte[] payload) {
+        ThemeBundle bundle = ThemeBundleCodec.decode(payload);
+        RenderTheme theme = new RenderTheme(bundle.getId(),
+                bundle.getBackgroundColour(),
+                bundle.getDateAndTimeColour(),
+                newPaint(timeTemplate, bundle.getTimeTextSizeDp(), bundle.getDateAndTimeColour()),
+                newPaint(dateTemplate, bundle.getDateTextSizeDp(), bundle.getDateAndTimeColour()),
+                bundle.getLayoutVariant(),
+                bundle.hasBackgroundImage() ? decodeBackground(bundle.getBackgroundImage()) : null);
+        decodes++;
+
+        RenderTheme replaced = themes.put(theme.getId(), theme);
+        if (replaced != null) {
+            bytes -= replaced.getByteCount();
+        }
+        bytes += theme.getByteCount();
+        trim();
+        return theme;
+    }
+
+    private Paint newPaint(Paint template, float textSizeDp, int colour) {
+        Paint paint = new Paint(template);
+        paint.setTextSize(textSizeDp * density);
+        paint.setColor(colour);
+        return paint;
+    }
+
+    private Bitmap decodeBackground(byte[] image) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(image, 0, image.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IllegalArgumentException("Theme background is not a decodable image");
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = 1;
+        while (options.outWidth / (options.inSampleSize * 2) >= width
+                && options.outHeight / (options.inSampleSize * 2) >= height) {
+            options.inSampleSize *= 2;
+        }
+        Bitmap decoded = BitmapFactory.decodeByteArray(image, 0, image.length, options);
+        if (decoded == null) {
+            throw new IllegalArgumentException("Theme background is not a decodable image");
+        }
+        if (decoded.getWidth() == width && decoded.getHeight() == height) {
+            return decoded;
+        }
+        Bitmap scaled = Bitmap.createScaledBitmap(decoded, width, height, true);
+        if (scaled != decoded) {
+            decoded.recycle();
+        }
+        return scaled;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Long, RenderTheme>> iterator = themes.entrySet().iterator();
+        while (themes.size() > 1 && (themes.size() > MAX_THEMES || bytes > MAX_BYTES)) {
+            RenderTheme eldest = iterator.next().getValue();
+            iterator.remove();
+            bytes -= eldest.getByteCount();
+            evictions++;
+        }
+    }
+
+    public void dump(String prefix, PrintWriter out) {
+        out.print(prefix);
+        out.println("themes=" + themes.size() + " bytes=" + bytes + " hits=" + hits
+                + " decodes=" + decodes + " evictions=" + evictions);
+    }
+}
@@ -0,0 +1,439 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+
+import com.google.android.gms.common.ConnectionResult;
+import com.google.android.gms.common.api.GoogleApiClient;
+import com.google.android.gms.wearable.Asset;
+import com.google.android.gms.wearable.DataApi;
+import com.google.android.gms.wearable.DataEvent;
+import com.google.android.gms.wearable.DataEventBuffer;
+import com.google.android.gms.wearable.DataItem;
+import com.google.android.gms.wearable.DataItemBuffer;
+import com.google.android.gms.wearable.DataMap;
+import com.google.android.gms.wearable.DataMapItem;
+import com.google.android.gms.wearable.MessageApi;
+import com.google.android.gms.wearable.MessageEvent;
+import com.google.android.gms.wearable.PutDataRequest;
+import com.google.android.gms.wearable.Wearable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class WatchConfigSyncManager implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.OnConnectionFailedListener {
+
+    private static final String TAG = "WatchConfigSyncManager";
+    private static final long PREVIEW_TIMEOUT_MILLIS = 30 * 1000;
+    private static final Uri CONFIG_URI = new Uri.Builder()
+            .scheme(PutDataRequest.WEAR_URI_SCHEME)
+            .path(WatchfaceSyncCommons.PATH)
+            .build();
+    private static final Uri THEME_URI = new Uri.Builder()
+            .scheme(PutDataRequest.WEAR_URI_SCHEME)
+            .path(WatchfaceSyncCommons.THEME_PATH)
+            .build();
+
+    private final GoogleApiClient googleApiClient;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+    private final ThemeCache themeCache;
+    private final EventTrace trace;
+
+    private HandlerThread workerThread;
+    private volatile Handler worker;
+    private volatile WatchFaceConfig lastConfig = WatchFaceConfig.DEFAULT;
+    private volatile WatchFaceConfig previewConfig;
+    private volatile RenderTheme currentTheme;
+    private boolean started;
+
+    private volatile long connects;
+    private volatile long fetches;
+    private volatile long itemsProcessed;
+    private volatile long itemsSkipped;
+    private volatile long previews;
+    private volatile long themeFetches;
+
+    public static WatchConfigSyncManager newInstance(Context context, ThemeCache themeCache, EventTrace trace) {
+        return new WatchConfigSyncManager(new GoogleApiClient.Builder(context).addApi(Wearable.API), themeCache, trace);
+    }
+
+    WatchConfigSyncManager(GoogleApiClient.Builder clientBuilder, ThemeCache themeCache, EventTrace trace) {
+        this.googleApiClient = clientBuilder
+                .addConnectionCallbacks(this)
+                .addOnConnectionFailedListener(this)
+                .build();
+        this.themeCache = themeCache;
+        this.trace = trace;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public WatchFaceConfig getLastConfig() {
+        return lastConfig;
+    }
+
+    public WatchFaceConfig getEffectiveConfig() {
+        WatchFaceConfig preview = previewConfig;
+        return preview != null ? preview : lastConfig;
+    }
+
+    public RenderTheme getCurrentTheme() {
+        return currentTheme;
+    }
+
+    public void start(WatchFaceConfig appliedConfig) {
+        lastConfig = appliedConfig;
+        if (started) {
+            return;
+        }
+        started = true;
+        workerThread = new HandlerThread(TAG);
+        workerThread.start();
+        worker = new Handler(workerThread.getLooper());
+        googleApiClient.connect();
+    }
+
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        if (googleApiClient.isConnected()) {
+            Wearable.DataApi.removeListener(googleApiClient, onDataChangedListener);
+            Wearable.MessageApi.removeListener(googleApiClient, onMessageReceivedListener);
+        }
+        previewConfig = null;
+        currentTheme = null;
+        googleApiClient.disconnect();
+        workerThread.quit();
+        workerThread = null;
+        worker = null;
+    }
+
+    @Override
+    public void onConnected(Bundle bundle) {
+        Log.d(TAG, "connected GoogleAPI");
+        connects++;
+        trace.record(EventTrace.CONNECTED, connects);
+
+        Wearable.DataApi.addListener(googleApiClient, onDataChangedListener);
+        Wearable.MessageApi.addListener(googleApiClient, onMessageReceivedListener);
+        Handler currentWorker = worker;
+        if (currentWorker != null) {
+            currentWorker.post(fetchRunnable);
+        }
+    }
+
+    @Override
+    public void onConnectionSuspended(int i) {
+        Log.e(TAG, "suspended GoogleAPI");
+        trace.record(EventTrace.CONNECTION_SUSPENDED, i);
+    }
+
+    @Override
+    public void onConnectionFailed(ConnectionResult connectionResult) {
+        Log.e(TAG, "connectionFailed GoogleAPI");
+        trace.record(EventTrace.CONNECTION_FAILED, connectionResult.getErrorCode());
+    }
+
+    private final DataApi.DataListener onDataChangedListener = new DataApi.DataListener() {
+        @Override
+        public void onDataChanged(DataEventBuffer dataEvents) {
+            final List<DataItem> items = new ArrayList<DataItem>();
+            for (DataEvent event : dataEvents) {
+                if (event.getType() == DataEvent.TYPE_CHANGED
+                        && (isConfiguration(event.getDataItem()) || isTheme(event.getDataItem()))) {
+                    items.add(event.getDataItem().freeze());
+                }
+            }
+            dataEvents.release();
+            trace.record(EventTrace.DATA_RECEIVED, items.size());
+
+            Handler currentWorker = worker;
+            if (items.isEmpty() || currentWorker == null) {
+                return;
+            }
+            currentWorker.post(new Runnable() {
+                @Override
+                public void run() {
+                    trace.beginSection(EventTrace.SYNC_BEGIN, items.size());
+                    WatchFaceConfig previous = lastConfig;
+                    for (DataItem item : items) {
+                        processConfigurationFor(item);
+                        processThemeFor(item);
+                    }
+                    notifyIfChanged(previous);
+                    trace.endSection(EventTrace.SYNC_END, lastConfig.getRevision());
+                }
+            });
+        }
+    };
+
+    private final MessageApi.MessageListener onMessageReceivedListener = new MessageApi.MessageListener() {
+        @Override
+        public void onMessageReceived(MessageEvent messageEvent) {
+            Handler currentWorker = worker;
+            if (currentWorker == null) {
+                return;
+            }
+            if (WatchfaceSyncCommons.PREVIEW_PATH.equals(messageEvent.getPath())) {
+                final byte[] payload = messageEvent.getData();
+                currentWorker.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        processPreview(payload);
+                    }
+                });
+            } else if (WatchfaceSyncCommons.PREVIEW_END_PATH.equals(messageEvent.getPath())) {
+                currentWorker.post(endPreviewRunnable);
+            }
+        }
+    };
+
+    private void processPreview(byte[] payload) {
+        try {
+            previewConfig = WatchFaceConfigCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "ignoring invalid preview", e);
+            return;
+        }
+        previews++;
+        Handler currentWorker = worker;
+        if (currentWorker != null) {
+            currentWorker.removeCallbacks(endPreviewRunnable);
+            currentWorker.postDelayed(endPreviewRunnable, PREVIEW_TIMEOUT_MILLIS);
+        }
+        notifyPreviewChanged();
+    }
+
+    private final Runnable endPreviewRunnable = new Runnable() {
+        @Override
+        public void run() {
+            Handler currentWorker = worker;
+            if (currentWorker != null) {
+                currentWorker.removeCallbacks(endPreviewRunnable);
+            }
+            if (previewConfig != null) {
+                previewConfig = null;
+                notifyPreviewChanged();
+            }
+        }
+    };
+
+    private void notifyPreviewChanged() {
+        for (Listener listener : listeners) {
+            listener.onPreviewChanged();
+        }
+    }
+
+    private final Runnable fetchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            fetches++;
+            trace.beginSection(EventTrace.SYNC_BEGIN, 0);
+            try {
+                fetch();
+            } finally {
+                trace.endSection(EventTrace.SYNC_END, lastConfig.getRevision());
+            }
+        }
+    };
+
+    private void fetch() {
+        DataItemBuffer dataItems = Wearable.DataApi.getDataItems(googleApiClient, CONFIG_URI).await();
+        if (!dataItems.getStatus().isSuccess()) {
+            Log.e(TAG, "fetching config failed: " + dataItems.getStatus());
+            dataItems.release();
+            return;
+        }
+
+        WatchFaceConfig previous = lastConfig;
+        for (DataItem item : dataItems) {
+            processConfigurationFor(item);
+        }
+
+        dataItems.release();
+        notifyIfChanged(previous);
+
+        DataItemBuffer themeItems = Wearable.DataApi.getDataItems(googleApiClient, THEME_URI).await();
+        if (themeItems.getStatus().isSuccess()) {
+            for (DataItem item : themeItems) {
+                processThemeFor(item);
+            }
+        }
+        themeItems.release();
+    }
+
+    private void notifyIfChanged(WatchFaceConfig previous) {
+        if (!lastConfig.hasSameColoursAs(previous)) {
+            WatchFaceConfig config = lastConfig;
+            Handler currentWorker = worker;
+            if (previewConfig != null) {
+                previewConfig = null;
+                if (currentWorker != null) {
+                    currentWorker.removeCallbacks(endPreviewRunnable);
+                }
+            }
+            for (Listener listener : listeners) {
+                listener.onConfigChanged(config);
+            }
+        }
+    }
+
+    private static boolean isConfiguration(DataItem item) {
+        return WatchfaceSyncCommons.PATH.equals(item.getUri().getPath());
+    }
+
+    private static boolean isTheme(DataItem item) {
+        return WatchfaceSyncCommons.THEME_PATH.equals(item.getUri().getPath());
+    }
+
+    private void processThemeFor(DataItem item) {
+        if (!isTheme(item)) {
+            return;
+        }
+
+        DataMap dataMap = DataMapItem.fromDataItem(item).getDataMap();
+        long id = dataMap.getLong(WatchfaceSyncCommons.KEY_THEME_ID);
+        RenderTheme current = currentTheme;
+        if (current != null && current.getId() == id) {
+            return;
+        }
+
+        RenderTheme theme = themeCache.get(id);
+        if (theme == null) {
+            theme = fetchTheme(dataMap.getAsset(WatchfaceSyncCommons.KEY_THEME));
+            if (theme == null) {
+                return;
+            }
+        }
+        currentTheme = theme;
+        for (Listener listener : listeners) {
+            listener.onThemeChanged(theme);
+        }
+    }
+
+    private RenderTheme fetchTheme(Asset asset) {
+        if (asset == null) {
+            return null;
+        }
+        themeFetches++;
+        DataApi.GetFdForAssetResult result = Wearable.DataApi.getFdForAsset(googleApiClient, asset).await();
+        if (!result.getStatus().isSuccess()) {
+            Log.e(TAG, "fetching theme failed: " + result.getStatus());
+            result.release();
+            return null;
+        }
+
+        InputStream in = result.getInputStream();
+        try {
+            return themeCache.decode(readFully(in));
+        } catch (IOException e) {
+            Log.e(TAG, "reading theme failed", e);
+            return null;
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "ignoring invalid theme", e);
+            return null;
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                //no-op
+            }
+            result.release();
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private void processConfigurationFor(DataItem item) {
+        if (!isConfiguration(item)) {
+            return;
+        }
+        itemsProcessed++;
+
+        DataMap dataMap = DataMapItem.fromDataItem(item).getDataMap();
+        if (dataMap.containsKey(WatchfaceSyncCommons.KEY_CONFIG)) {
+            processPackedConfiguration(dataMap.getByteArray(WatchfaceSyncCommons.KEY_CONFIG));
+            return;
+        }
+
+        WatchFaceConfig config = lastConfig;
+        if (dataMap.containsKey(WatchfaceSyncCommons.KEY_BACKGROUND_COLOUR)) {
+            String backgroundColour = dataMap.getString(WatchfaceSyncCommons.KEY_BACKGROUND_COLOUR);
+            config = config.withBackgroundColour(Color.parseColor(backgroundColour));
+        }
+
+        if (dataMap.containsKey(WatchfaceSyncCommons.KEY_DATE_TIME_COLOUR)) {
+            String timeColour = dataMap.getString(WatchfaceSyncCommons.KEY_DATE_TIME_COLOUR);
+            config = config.withDateAndTimeColour(Color.parseColor(timeColour));
+        }
+        lastConfig = config;
+    }
+
+    private void processPackedConfiguration(byte[] payload) {
+        WatchFaceConfig config;
+        try {
+            config = WatchFaceConfigCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "ignoring invalid watch face config", e);
+            return;
+        }
+
+        if (!config.supersedes(lastConfig)) {
+            itemsSkipped++;
+            return;
+        }
+        lastConfig = config;
+    }
+
+    public void dump(String prefix, PrintWriter out) {
+        out.print(prefix);
+        out.println("connects=" + connects + " fetches=" + fetches
+                + " itemsProcessed=" + itemsProcessed + " itemsSkipped=" + itemsSkipped
+                + " previews=" + previews + " themeFetches=" + themeFetches
+                + " listeners=" + listeners.size());
+        out.print(prefix);
+        out.println("lastConfig=" + lastConfig);
+        out.print(prefix);
+        out.println("previewConfig=" + previewConfig);
+        out.print(prefix);
+        out.println("currentTheme=" + currentTheme);
+        themeCache.dump(prefix, out);
+    }
+
+    /**
+     * Called on the sync worker thread, never on the thread that renders.
+     */
+    public interface Listener {
+        void onConfigChanged(WatchFaceConfig config);
+
+        void onPreviewChanged();
+
+        void onThemeChanged(RenderTheme theme);
+    }
+}
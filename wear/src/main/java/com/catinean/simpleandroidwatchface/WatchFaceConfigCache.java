@@ -0,0 +1,38 @@
+package com.catinean.simpleandroidwatchface;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+public class WatchFaceConfigCache {
+
+    private static final String NAME = "WatchFaceConfigCache";
+    private static final String KEY_BACKGROUND_COLOUR = NAME + ".KEY_BACKGROUND_COLOUR";
+    private static final String KEY_DATE_TIME_COLOUR = NAME + ".KEY_DATE_TIME_COLOUR";
+    private static final String KEY_REVISION = NAME + ".KEY_REVISION";
+
+    private final SharedPreferences preferences;
+
+    public static WatchFaceConfigCache newInstance(Context context) {
+        SharedPreferences preferences = context.getSharedPreferences(NAME, Context.MODE_PRIVATE);
+        return new WatchFaceConfigCache(preferences);
+    }
+
+    WatchFaceConfigCache(SharedPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    public WatchFaceConfig load() {
+        return new WatchFaceConfig(
+                preferences.getInt(KEY_BACKGROUND_COLOUR, WatchFaceConfig.DEFAULT_BACKGROUND_COLOUR),
+                preferences.getInt(KEY_DATE_TIME_COLOUR, WatchFaceConfig.DEFAULT_DATE_AND_TIME_COLOUR),
+                preferences.getLong(KEY_REVISION, WatchFaceConfig.NO_REVISION));
+    }
+
+    public void save(WatchFaceConfig config) {
+        preferences.edit()
+                .putInt(KEY_BACKGROUND_COLOUR, config.getBackgroundColour())
+                .putInt(KEY_DATE_TIME_COLOUR, config.getDateAndTimeColour())
+                .putLong(KEY_REVISION, config.getRevision())
+                .apply();
+    }
+}